@@ -22,4 +22,10 @@ public class Messages {
     public static final String Existing_User = "Existing User in the Database";
     public static final String USER_NOT_EXISTS = "User not exists";
     public static final String ERROR_WHILE_AUTHENTICATION = "Error while authenticating";
+    public static final String SERVICE_UNAVAILABLE = "Service Unavailable";
+    public static final String REPORT_QUEUE_FULL = "Too many reports being generated, try again later";
+    public static final String PRODUCT_BATCH_TOO_LARGE = "Too many products in a single batch, the limit is ";
+    public static final String PRODUCT_BATCH_ID_NOT_ALLOWED = "uuidProduct must be empty on insert, use PUT to update";
+    public static final String EMAIL_BATCH_TOO_LARGE = "Too many recipients in a single batch, the limit is ";
+    public static final String REPORT_NOT_READY = "Report is not ready for download";
 }
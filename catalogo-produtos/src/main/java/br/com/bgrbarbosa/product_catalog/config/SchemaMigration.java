@@ -0,0 +1,68 @@
+package br.com.bgrbarbosa.product_catalog.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+
+/**
+ * Executa os scripts de classpath:db/migration em ordem de nome, depois que o Hibernate
+ * atualizou as tabelas (ddl-auto) e antes do servidor receber requisições.
+ * Os scripts devem ser idempotentes (IF NOT EXISTS), pois rodam a cada inicialização.
+ *
+ * Uma falha interrompe a inicialização: o código depende do que os scripts criam (por exemplo a coluna
+ * search_vector, gravada a cada inserção de produto). Só os scripts listados em {@code optional}, que
+ * criam apenas índices, podem falhar com um aviso.
+ */
+@Log4j2
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class SchemaMigration implements InitializingBean {
+
+    private static final String MIGRATION_SCRIPTS = "classpath:db/migration/*.sql";
+
+    private final DataSource dataSource;
+    private final ResourceLoader resourceLoader;
+
+    @Value("${catalog.schema-migration.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * V001 cria a extensão pg_trgm, que pode exigir permissões que o usuário da aplicação não tem;
+     * sem os índices de trigramas as buscas por substring continuam funcionando, apenas mais lentas.
+     */
+    @Value("${catalog.schema-migration.optional:V001__product_search_trigram.sql}")
+    private Set<String> optional = Set.of("V001__product_search_trigram.sql");
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (!enabled) {
+            return;
+        }
+        Resource[] scripts = ResourcePatternUtils.getResourcePatternResolver(resourceLoader).getResources(MIGRATION_SCRIPTS);
+        Arrays.sort(scripts, Comparator.comparing(Resource::getFilename));
+        for (Resource script : scripts) {
+            try {
+                new ResourceDatabasePopulator(script).execute(dataSource);
+                log.info("Schema migration applied: {}", script.getFilename());
+            } catch (RuntimeException e) {
+                if (!optional.contains(script.getFilename())) {
+                    throw new IllegalStateException("Schema migration " + script.getFilename() + " failed", e);
+                }
+                log.warn("Optional schema migration {} not applied: {}", script.getFilename(), e.getMessage());
+            }
+        }
+    }
+}
@@ -4,6 +4,10 @@ import br.com.bgrbarbosa.product_catalog.controller.mapper.CategoryMapper;
 import br.com.bgrbarbosa.product_catalog.model.Category;
 import br.com.bgrbarbosa.product_catalog.model.dto.CategoryDTO;
 import br.com.bgrbarbosa.product_catalog.service.CategoryService;
+import br.com.bgrbarbosa.product_catalog.service.CategoryServiceReport;
+import br.com.bgrbarbosa.product_catalog.service.ReportBulkhead;
+import br.com.bgrbarbosa.product_catalog.service.ReportBulkhead.Permit;
+import br.com.bgrbarbosa.product_catalog.service.XlsxReportExporter;
 import br.com.bgrbarbosa.product_catalog.service.exception.ResourceNotFoundException;
 import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,11 +19,8 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import net.sf.jasperreports.engine.*;
-import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
 import net.sf.jasperreports.engine.export.JRCsvExporter;
-import net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter;
 import net.sf.jasperreports.export.SimpleExporterInput;
-import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
 import net.sf.jasperreports.export.SimpleWriterExporterOutput;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -31,11 +32,9 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -47,6 +46,9 @@ public class CategoryController {
 
 	private final CategoryService service;
 	private final CategoryMapper mapper;
+	private final CategoryServiceReport categoryReport;
+	private final XlsxReportExporter xlsxExporter;
+	private final ReportBulkhead reportBulkhead;
 
 	@GetMapping
 	@PreAuthorize("hasRole('ROLE_USER')")
@@ -58,10 +60,9 @@ public class CategoryController {
 							content = @Content(mediaType = "application/json"))
 			})
 	public ResponseEntity<Page<CategoryDTO>> findAll(
-			@PageableDefault(page = 0, size = 10, sort = "uuid", direction = Sort.Direction.ASC) Pageable page){
+			@PageableDefault(page = 0, size = 10, sort = "nameCategory", direction = Sort.Direction.ASC) Pageable page){
 
-		List<CategoryDTO> listDTO = mapper.parseToListDTO(service.findAll(page));
-		Page<CategoryDTO> pageDTO = mapper.toPageDTO(listDTO, page);
+		Page<CategoryDTO> pageDTO = mapper.toPageDTO(service.findAll(page));
 		return ResponseEntity.ok(pageDTO);
 	}
 
@@ -84,7 +85,8 @@ public class CategoryController {
 	@Operation(summary = "Gerar relatórios de categorias usando filtros", description = "Gerar relatórios de categorias usando filtros",
 			responses = {
 					@ApiResponse(responseCode = "200", description = "Relatório gerado com sucesso",
-							content = @Content(mediaType = "application/json", schema = @Schema(implementation = CategoryDTO.class)))
+							content = @Content(mediaType = "application/json", schema = @Schema(implementation = CategoryDTO.class))),
+					@ApiResponse(responseCode = "503", description = "Muitos relatórios em geração, tente novamente após o Retry-After")
 			})
 	public void gerarRelatorio(
 			HttpServletResponse response,
@@ -92,52 +94,47 @@ public class CategoryController {
 			@RequestParam(name = "fileType", defaultValue = "pdf") String fileType
 	) throws JRException, IOException {
 
-		// Carregar e compilar o arquivo JRXML
-		InputStream jasperStream = this.getClass().getResourceAsStream("/reports/Categoria.jrxml");
-		JasperReport jasperReport = JasperCompileManager.compileReport(jasperStream);
-
-		// Definir os dados para o relatório
-		List<Category> dados = service.findAll();
-		JRDataSource dataSource = new JRBeanCollectionDataSource(dados);
-
-		// Adicionar parâmetros ao relatório (opcional)
-		Map<String, Object> parameters = new HashMap<>();
-		parameters.put("titulo", "Relatório de Exemplo");
-
-		// Preencher o relatório
-		JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
-
-		// --- Lógica de exportação dinâmica ---
-		OutputStream outputStream = response.getOutputStream();
-
-		if ("xlsx".equalsIgnoreCase(fileType)) {
-			// Configurar para XLSX
-			response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-			response.setHeader("Content-Disposition", "attachment; filename=\"relatorio.xlsx\"");
-
-			// Exportar para XLSX
-			JRXlsxExporter exporter = new JRXlsxExporter();
-			exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
-			exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(outputStream));
-			exporter.exportReport();
-
-		} else if ("csv".equalsIgnoreCase(fileType)) {
-			// Configurar para CSV
-			response.setContentType("text/csv");
-			response.setHeader("Content-Disposition", "attachment; filename=\"relatorio.csv\"");
-
-			// Exportar para CSV
-			JRCsvExporter exporter = new JRCsvExporter();
-			exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
-			exporter.setExporterOutput(new SimpleWriterExporterOutput(outputStream));
-			exporter.exportReport();
-
-		} else {
-			// Padrão: exportar para PDF
-			response.setContentType("application/pdf");
-			response.setHeader("Content-Disposition", "attachment; filename=\"relatorio.pdf\"");
-
-			JasperExportManager.exportReportToPdfStream(jasperPrint, outputStream);
+		// Geração limitada pelo bulkhead de relatórios; com a fila cheia a requisição recebe 503
+		Permit permit = reportBulkhead.acquire();
+		try {
+			if ("xlsx".equalsIgnoreCase(fileType)) {
+				// Planilha gerada com janela fixa de linhas em memória, direto na resposta
+				response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+				response.setHeader("Content-Disposition", "attachment; filename=\"relatorio.xlsx\"");
+				xlsxExporter.exportCategories(filter, response.getOutputStream());
+				return;
+			}
+
+			// Adicionar parâmetros ao relatório (opcional)
+			Map<String, Object> parameters = new HashMap<>();
+			parameters.put("titulo", "Relatório de Exemplo");
+
+			// Preencher o relatório com o resumo por categoria dos produtos do filtro, calculado em uma consulta
+			JasperPrint jasperPrint = categoryReport.fillCategoryReport(filter, parameters);
+
+			// --- Lógica de exportação dinâmica ---
+			OutputStream outputStream = response.getOutputStream();
+
+			if ("csv".equalsIgnoreCase(fileType)) {
+				// Configurar para CSV
+				response.setContentType("text/csv");
+				response.setHeader("Content-Disposition", "attachment; filename=\"relatorio.csv\"");
+
+				// Exportar para CSV
+				JRCsvExporter exporter = new JRCsvExporter();
+				exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
+				exporter.setExporterOutput(new SimpleWriterExporterOutput(outputStream));
+				exporter.exportReport();
+
+			} else {
+				// Padrão: exportar para PDF
+				response.setContentType("application/pdf");
+				response.setHeader("Content-Disposition", "attachment; filename=\"relatorio.pdf\"");
+
+				JasperExportManager.exportReportToPdfStream(jasperPrint, outputStream);
+			}
+		} finally {
+			permit.close();
 		}
 	}
 	
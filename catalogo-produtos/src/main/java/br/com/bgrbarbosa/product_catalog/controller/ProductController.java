@@ -1,42 +1,65 @@
 package br.com.bgrbarbosa.product_catalog.controller;
 
+import br.com.bgrbarbosa.product_catalog.config.Messages;
 import br.com.bgrbarbosa.product_catalog.controller.mapper.ProductMapper;
 import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.model.dto.CursorPageDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.EmailBatchDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.EmailBatchRequestDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.EmailMessageDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductBatchDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductBatchItemDTO;
 import br.com.bgrbarbosa.product_catalog.model.dto.ProductDTO;
-import br.com.bgrbarbosa.product_catalog.service.EmailService;
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductFacetsDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.SuggestionDTO;
+import br.com.bgrbarbosa.product_catalog.service.EmailOutboxService;
+import br.com.bgrbarbosa.product_catalog.service.ProductCsvExporter;
 import br.com.bgrbarbosa.product_catalog.service.ProductService;
-import br.com.bgrbarbosa.product_catalog.service.ProductServiceReport;
+import br.com.bgrbarbosa.product_catalog.service.ProductSuggestIndex;
+import br.com.bgrbarbosa.product_catalog.service.ReportBulkhead;
+import br.com.bgrbarbosa.product_catalog.service.ReportBulkhead.Permit;
+import br.com.bgrbarbosa.product_catalog.service.ReportFormat;
+import br.com.bgrbarbosa.product_catalog.service.ReportOutputCache;
+import br.com.bgrbarbosa.product_catalog.service.ReportOutputCache.CachedReport;
+import br.com.bgrbarbosa.product_catalog.service.ReportType;
+import br.com.bgrbarbosa.product_catalog.service.exception.IllegalArgumentException;
 import br.com.bgrbarbosa.product_catalog.service.exception.ResourceNotFoundException;
+import br.com.bgrbarbosa.product_catalog.specification.ProductCursor;
 import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import net.sf.jasperreports.engine.*;
-import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
-import net.sf.jasperreports.engine.export.JRCsvExporter;
-import net.sf.jasperreports.engine.export.ooxml.JRXlsxExporter;
-import net.sf.jasperreports.export.SimpleExporterInput;
-import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
-import net.sf.jasperreports.export.SimpleWriterExporterOutput;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping(value = "/product")
@@ -46,8 +69,16 @@ public class ProductController {
 
 	private final ProductService service;
 	private final ProductMapper mapper;
-	private final EmailService emailService;
-	private final ProductServiceReport productReport;
+	private final EmailOutboxService emailOutbox;
+	private final ProductCsvExporter csvExporter;
+	private final ReportOutputCache reportCache;
+	private final ReportFileSender fileSender;
+	private final ReportBulkhead reportBulkhead;
+	private final ProductSuggestIndex suggestIndex;
+	private final Validator validator;
+
+	@Value("${catalog.product.batch.max-items:50000}")
+	private int batchMaxItems = 50000;
 
 	@GetMapping
 	@PreAuthorize("hasRole('ROLE_USER')")
@@ -60,13 +91,104 @@ public class ProductController {
 			})
 	public ResponseEntity<Page<ProductDTO>> findAll(
 			ProductFilter filter,
-			@PageableDefault(page = 0, size = 10, sort = "uuid", direction = Sort.Direction.ASC) Pageable page){
+			@PageableDefault(page = 0, size = 10, sort = "nameProduct", direction = Sort.Direction.ASC) Pageable page){
+
+		Page<ProductDTO> pageDTO = mapper.toPageDTO(service.findAll(page, filter));
+		return ResponseEntity.ok(pageDTO);
+	}
+
+	@GetMapping("/search")
+	@PreAuthorize("hasRole('ROLE_USER')")
+	@Operation(
+			summary = "Pesquisar produtos por texto",
+			description = "Pesquisa textual no nome, descrição e categoria dos produtos, ordenada por relevância",
+			responses = {
+				@ApiResponse(responseCode = "200", description = "Produtos encontrados ordenados por relevância",
+					content = @Content(mediaType = "application/json"))
+			})
+	public ResponseEntity<Page<ProductDTO>> search(
+			@RequestParam(name = "q") String text,
+			@PageableDefault(page = 0, size = 10) Pageable page){
 
-		List<ProductDTO> listDTO = mapper.parseToListDTO(service.findAll(page, filter));
-		Page<ProductDTO> pageDTO = mapper.toPageDTO(listDTO, page);
+		Page<ProductDTO> pageDTO = mapper.toPageDTO(service.search(text, page));
 		return ResponseEntity.ok(pageDTO);
 	}
 
+	@GetMapping("/suggest")
+	@PreAuthorize("hasRole('ROLE_USER')")
+	@Operation(
+			summary = "Sugerir nomes por prefixo",
+			description = "Autocompletar com nomes de produtos e categorias que começam com o prefixo informado",
+			responses = {
+				@ApiResponse(responseCode = "200", description = "Sugestões ordenadas por frequência",
+					content = @Content(mediaType = "application/json"))
+			})
+	public ResponseEntity<List<SuggestionDTO>> suggest(
+			@RequestParam String prefix,
+			@RequestParam(defaultValue = "10") int limit){
+
+		return ResponseEntity.ok(suggestIndex.suggest(prefix, limit));
+	}
+
+	@GetMapping("/slice")
+	@PreAuthorize("hasRole('ROLE_USER')")
+	@Operation(
+			summary = "Listar produtos sem contagem total",
+			description = "Listar produtos paginados informando apenas se existe próxima página, sem executar a contagem total",
+			responses = {
+				@ApiResponse(responseCode = "200", description = "Página de produtos sem o total de registros",
+					content = @Content(mediaType = "application/json"))
+			})
+	public ResponseEntity<Slice<ProductDTO>> findSlice(
+			ProductFilter filter,
+			@PageableDefault(page = 0, size = 10, sort = "nameProduct", direction = Sort.Direction.ASC) Pageable page){
+
+		Slice<ProductDTO> sliceDTO = mapper.toSliceDTO(service.findSlice(page, filter));
+		return ResponseEntity.ok(sliceDTO);
+	}
+
+	@GetMapping("/cursor")
+	@PreAuthorize("hasRole('ROLE_USER')")
+	@Operation(
+			summary = "Listar produtos por cursor",
+			description = "Listar produtos paginando por cursor (keyset), sem contagem total. Informe o nextCursor retornado no parâmetro after para obter a próxima página",
+			responses = {
+				@ApiResponse(responseCode = "200", description = "Página de produtos e cursor da próxima página",
+					content = @Content(mediaType = "application/json"))
+			})
+	public ResponseEntity<CursorPageDTO<ProductDTO>> findAllByCursor(
+			ProductFilter filter,
+			@RequestParam(name = "after", required = false) String after,
+			@RequestParam(name = "sort", defaultValue = "nameProduct") String sort,
+			@RequestParam(name = "size", defaultValue = "10") int size) {
+
+		ProductCursor cursor = after == null ? null : ProductCursor.decode(after);
+		String sortField = cursor == null ? sort : cursor.sortField();
+		Slice<Product> slice = service.findAllAfter(filter, cursor, sortField, size);
+
+		List<Product> content = slice.getContent();
+		String nextCursor = slice.hasNext()
+				? ProductCursor.of(content.get(content.size() - 1), sortField).encode()
+				: null;
+		return ResponseEntity.ok(new CursorPageDTO<>(mapper.parseToListDTO(content), content.size(), nextCursor));
+	}
+
+	@GetMapping("/facets")
+	@PreAuthorize("hasRole('ROLE_USER')")
+	@Operation(
+			summary = "Contagens por categoria e faixa de preço",
+			description = "Contagem dos produtos do filtro por categoria e por faixa de preço. Informe os limites das faixas em ordem crescente no parâmetro priceBounds",
+			responses = {
+				@ApiResponse(responseCode = "200", description = "Contagens dos produtos do filtro",
+					content = @Content(mediaType = "application/json"))
+			})
+	public ResponseEntity<ProductFacetsDTO> findFacets(
+			ProductFilter filter,
+			@RequestParam(name = "priceBounds", required = false) List<Double> priceBounds) {
+
+		return ResponseEntity.ok(service.findFacets(filter, priceBounds));
+	}
+
 	@GetMapping(value = "/{uuid}")
 	@PreAuthorize("hasRole('ROLE_USER')")
 	@Operation(summary = "Recuperar um produto pelo id", description = "Recuperar um produto pelo id",
@@ -83,63 +205,53 @@ public class ProductController {
 
 	@GetMapping("/report")
 	@PreAuthorize("hasRole('ROLE_USER')")
-	@Operation(summary = "Gerar relatórios de produtos usando filtros", description = "Gerar relatórios de produtos usando filtros",
+	@Operation(summary = "Gerar relatórios de produtos usando filtros", description = "Gerar relatórios de produtos usando filtros. PDF e XLSX aceitam Range e If-Range para retomar downloads interrompidos",
 			responses = {
 					@ApiResponse(responseCode = "200", description = "Relatório gerado com sucesso",
-							content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductDTO.class)))
+							content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductDTO.class))),
+					@ApiResponse(responseCode = "206", description = "Parte do relatório pedida no cabeçalho Range"),
+					@ApiResponse(responseCode = "304", description = "Relatório igual ao ETag informado em If-None-Match"),
+					@ApiResponse(responseCode = "503", description = "Muitos relatórios em geração, tente novamente após o Retry-After")
 			})
 	public void gerarRelatorio(
+			HttpServletRequest request,
 			HttpServletResponse response,
 			ProductFilter filter,
 			@RequestParam(name = "fileType", defaultValue = "pdf") String fileType
 	) throws JRException, IOException {
 
-		// Carregar e compilar o arquivo JRXML
-		InputStream jasperStream = this.getClass().getResourceAsStream("/reports/Produto.jrxml");
-		JasperReport jasperReport = JasperCompileManager.compileReport(jasperStream);
-
-		// Definir os dados para o relatório
-		List<Product> dados = service.findAll(filter);
-		JRDataSource dataSource = new JRBeanCollectionDataSource(dados);
-
-		// Adicionar parâmetros ao relatório (opcional)
-		Map<String, Object> parameters = new HashMap<>();
-		parameters.put("titulo", "Relatório de Exemplo");
+		if ("csv".equalsIgnoreCase(fileType)) {
+			Permit permit = reportBulkhead.acquire();
+			try {
+				exportCsv(request, response, filter);
+			} finally {
+				permit.close();
+			}
+			return;
+		}
+		// PDF e planilha ficam em cache por filtro e versão do catálogo; repetições são servidas do disco
+		ReportFormat format = ReportFormat.of(fileType);
+		CachedReport report = reportCache.get(ReportType.PRODUCT, format, filter);
+		fileSender.send(request, response, report.file(), report.size(), format.getContentType(),
+				"relatorio." + format.getExtension(), report.etag());
+	}
 
-		// Preencher o relatório
-		JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
+	/**
+	 * CSV escrito direto do cursor do banco para a resposta, compactado quando o cliente aceita gzip.
+	 */
+	private void exportCsv(HttpServletRequest request, HttpServletResponse response, ProductFilter filter) throws IOException {
+		response.setContentType("text/csv");
+		response.setHeader("Content-Disposition", "attachment; filename=\"relatorio.csv\"");
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
 
-		// --- Lógica de exportação dinâmica ---
 		OutputStream outputStream = response.getOutputStream();
-
-			if ("xlsx".equalsIgnoreCase(fileType)) {
-			// Configurar para XLSX
-			response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-			response.setHeader("Content-Disposition", "attachment; filename=\"relatorio.xlsx\"");
-
-			// Exportar para XLSX
-			JRXlsxExporter exporter = new JRXlsxExporter();
-			exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
-			exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(outputStream));
-			exporter.exportReport();
-
-		} else if ("csv".equalsIgnoreCase(fileType)) {
-			// Configurar para CSV
-			response.setContentType("text/csv");
-			response.setHeader("Content-Disposition", "attachment; filename=\"relatorio.csv\"");
-
-			// Exportar para CSV
-			JRCsvExporter exporter = new JRCsvExporter();
-			exporter.setExporterInput(new SimpleExporterInput(jasperPrint));
-			exporter.setExporterOutput(new SimpleWriterExporterOutput(outputStream));
-			exporter.exportReport();
-
-		} else {
-			// Padrão: exportar para PDF
-			response.setContentType("application/pdf");
-			response.setHeader("Content-Disposition", "attachment; filename=\"relatorio.pdf\"");
-
-			JasperExportManager.exportReportToPdfStream(jasperPrint, outputStream);
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		if (acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip")) {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+			outputStream = new GZIPOutputStream(outputStream, 64 * 1024);
+		}
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024)) {
+			csvExporter.export(filter, writer);
 		}
 	}
 
@@ -158,21 +270,129 @@ public class ProductController {
 		return ResponseEntity.created(uri).body(mapper.parseToDto(result));
 	}
 
+	@PostMapping("/batch")
+	@PreAuthorize("hasRole('ROLE_ADMIN')")
+	@Operation(summary = "Cadastra produtos em lote", description = "Cadastra uma lista de produtos, gravada em blocos. Cada item é validado e gravado de forma independente: o resultado traz, na ordem enviada, o uuid criado ou os erros do item",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Lote processado; consulte o status de cada item",
+							content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductBatchDTO.class))),
+					@ApiResponse(responseCode = "400", description = "Lote acima do limite de produtos")
+			})
+	public ResponseEntity<ProductBatchDTO> insertBatch(@RequestBody List<ProductDTO> dtos) {
+		// Recusa o lote antes de validar qualquer item
+		if (dtos.size() > batchMaxItems) {
+			throw new IllegalArgumentException(Messages.PRODUCT_BATCH_TOO_LARGE + batchMaxItems);
+		}
+		ProductBatchItemDTO[] items = new ProductBatchItemDTO[dtos.size()];
+		List<Product> valid = new ArrayList<>(dtos.size());
+		List<Integer> validIndexes = new ArrayList<>(dtos.size());
+		for (int i = 0; i < dtos.size(); i++) {
+			ProductDTO dto = dtos.get(i);
+			if (dto == null) {
+				items[i] = failed(i, List.of(Messages.NOT_NULL));
+				continue;
+			}
+			// Validação por item: um produto inválido não impede a gravação dos demais
+			List<String> violations = validator.validate(dto).stream()
+					.map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+					.sorted()
+					.toList();
+			if (!violations.isEmpty()) {
+				items[i] = failed(i, violations);
+				continue;
+			}
+			valid.add(mapper.parseToEntity(dto));
+			validIndexes.add(i);
+		}
+
+		List<String> errors = service.insertAll(valid);
+		for (int j = 0; j < valid.size(); j++) {
+			int index = validIndexes.get(j);
+			items[index] = errors.get(j) == null
+					? new ProductBatchItemDTO(index, ProductBatchItemDTO.CREATED, valid.get(j).getUuidProduct(), List.of())
+					: failed(index, List.of(errors.get(j)));
+		}
+		int created = (int) Arrays.stream(items).filter(item -> ProductBatchItemDTO.CREATED.equals(item.status())).count();
+		return ResponseEntity.ok(new ProductBatchDTO(created, items.length - created, List.of(items)));
+	}
+
+	private static ProductBatchItemDTO failed(int index, List<String> errors) {
+		return new ProductBatchItemDTO(index, ProductBatchItemDTO.FAILED, null, errors);
+	}
+
 	@PostMapping("/enviar-email")
 	@PreAuthorize("hasRole('ROLE_ADMIN')")
-	@Operation(summary = "Envia relatório de relatório", description = "Envia relatório de produtos por email",
+	@Operation(summary = "Envia relatório de relatório", description = "Agenda o envio do relatório de produtos por email. Consulte a situação do envio pelo id retornado",
 			responses = {
-					@ApiResponse(responseCode = "201", description = "Email enviado com sucesso",
-							content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductDTO.class)))
+					@ApiResponse(responseCode = "202", description = "Email agendado para envio",
+							content = @Content(mediaType = "application/json", schema = @Schema(implementation = EmailMessageDTO.class)))
 			})
-	public String enviarEmail(@RequestParam String destination) {
-		try {
-			emailService.sendingProductListByEmail(destination);
-			return "E-mail enviado com sucesso!";
-		} catch (Exception e) {
-			e.printStackTrace();
-			return "Erro ao enviar e-mail: " + e.getMessage();
+	public ResponseEntity<EmailMessageDTO> enviarEmail(@RequestParam String destination) {
+		// Apenas grava no outbox; o PDF e o SMTP ficam com o despachante em segundo plano
+		EmailMessageDTO message = emailOutbox.enqueueProductList(destination);
+		URI uri = ServletUriComponentsBuilder.fromCurrentRequestUri().path("/{id}")
+				.buildAndExpand(message.id()).toUri();
+		return ResponseEntity.accepted().location(uri).body(message);
+	}
+
+	@PostMapping(value = "/enviar-email/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+	@PreAuthorize("hasRole('ROLE_ADMIN')")
+	@Operation(summary = "Envia relatório de produtos para vários destinatários", description = "Agenda o envio do relatório de produtos para a lista de emails. Consulte o progresso pelo id do lote retornado",
+			responses = {
+					@ApiResponse(responseCode = "202", description = "Lote agendado para envio",
+							content = @Content(mediaType = "application/json", schema = @Schema(implementation = EmailBatchDTO.class))),
+					@ApiResponse(responseCode = "400", description = "Email inválido ou destinatários acima do limite")
+			})
+	public ResponseEntity<EmailBatchDTO> enviarEmailLote(@RequestBody @Valid EmailBatchRequestDTO request) {
+		return batchAccepted(emailOutbox.enqueueProductList(request.destinations()));
+	}
+
+	@PostMapping(value = "/enviar-email/lote", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	@PreAuthorize("hasRole('ROLE_ADMIN')")
+	@Operation(summary = "Envia relatório de produtos para os destinatários de um arquivo", description = "Arquivo texto com um email por linha, ou separados por vírgula ou ponto e vírgula. Consulte o progresso pelo id do lote retornado",
+			responses = {
+					@ApiResponse(responseCode = "202", description = "Lote agendado para envio",
+							content = @Content(mediaType = "application/json", schema = @Schema(implementation = EmailBatchDTO.class))),
+					@ApiResponse(responseCode = "400", description = "Email inválido ou destinatários acima do limite")
+			})
+	public ResponseEntity<EmailBatchDTO> enviarEmailLote(@RequestParam("file") MultipartFile file) throws IOException {
+		List<String> destinations = EmailOutboxService.readRecipients(file.getInputStream());
+		if (destinations.isEmpty()) {
+			throw new IllegalArgumentException(Messages.NOT_EMPTY);
 		}
+		return batchAccepted(emailOutbox.enqueueProductList(destinations));
+	}
+
+	@GetMapping("/enviar-email/lote/{id}")
+	@PreAuthorize("hasRole('ROLE_ADMIN')")
+	@Operation(summary = "Consultar progresso do envio em lote", description = "Retorna quantos emails do lote estão pendentes, em envio, enviados ou com falha definitiva",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Progresso do lote",
+							content = @Content(mediaType = "application/json", schema = @Schema(implementation = EmailBatchDTO.class))),
+					@ApiResponse(responseCode = "404", description = "Lote não encontrado",
+							content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceNotFoundException.class)))
+			})
+	public ResponseEntity<EmailBatchDTO> findEmailLote(@PathVariable UUID id) {
+		return ResponseEntity.ok(emailOutbox.findBatch(id));
+	}
+
+	private static ResponseEntity<EmailBatchDTO> batchAccepted(EmailBatchDTO batch) {
+		URI uri = ServletUriComponentsBuilder.fromCurrentRequestUri().path("/{id}")
+				.buildAndExpand(batch.id()).toUri();
+		return ResponseEntity.accepted().location(uri).body(batch);
+	}
+
+	@GetMapping("/enviar-email/{id}")
+	@PreAuthorize("hasRole('ROLE_ADMIN')")
+	@Operation(summary = "Consultar envio de email", description = "Retorna a situação do envio: PENDING, SENDING, SENT ou DEAD",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Situação do envio",
+							content = @Content(mediaType = "application/json", schema = @Schema(implementation = EmailMessageDTO.class))),
+					@ApiResponse(responseCode = "404", description = "Envio não encontrado",
+							content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceNotFoundException.class)))
+			})
+	public ResponseEntity<EmailMessageDTO> findEmail(@PathVariable UUID id) {
+		return ResponseEntity.ok(emailOutbox.find(id));
 	}
 
 	@PutMapping
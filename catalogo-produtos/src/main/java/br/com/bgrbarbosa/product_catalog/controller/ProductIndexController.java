@@ -0,0 +1,49 @@
+package br.com.bgrbarbosa.product_catalog.controller;
+
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductIndexStatsDTO;
+import br.com.bgrbarbosa.product_catalog.service.ProductSearchIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "/product/index")
+@RequiredArgsConstructor
+@Tag(name = "Product Index", description = "Contém as operações de acompanhamento do índice de busca de produtos em memória.")
+public class ProductIndexController {
+
+	private final ProductSearchIndex searchIndex;
+
+	@GetMapping
+	@PreAuthorize("hasRole('ROLE_ADMIN')")
+	@Operation(summary = "Consultar o índice de busca", description = "Retorna a situação do índice de busca em memória e o seu consumo estimado de memória",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Situação do índice",
+							content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductIndexStatsDTO.class)))
+			})
+	public ResponseEntity<ProductIndexStatsDTO> stats() {
+		return ResponseEntity.ok(searchIndex.stats());
+	}
+
+	@PostMapping("/rebuild")
+	@PreAuthorize("hasRole('ROLE_ADMIN')")
+	@Operation(summary = "Reconstruir o índice de busca", description = "Reconstrói o índice de busca em memória a partir do banco de dados",
+			responses = {
+					@ApiResponse(responseCode = "202", description = "Reconstrução iniciada"),
+					@ApiResponse(responseCode = "409", description = "Índice desabilitado ou reconstrução já em andamento")
+			})
+	public ResponseEntity<Void> rebuild() {
+		HttpStatus status = searchIndex.rebuildAsync() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+		return ResponseEntity.status(status).build();
+	}
+}
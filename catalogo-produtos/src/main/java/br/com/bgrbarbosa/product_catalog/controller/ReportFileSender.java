@@ -0,0 +1,147 @@
+package br.com.bgrbarbosa.product_catalog.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Envia um relatório já gravado em disco. Com o conector NIO do Tomcat o arquivo é entregue por sendfile,
+ * sem passar pela JVM; nos demais casos é copiado com {@link FileChannel#transferTo}.
+ *
+ * Aceita Range com um único intervalo de bytes (206 Partial Content), para que downloads interrompidos
+ * sejam retomados; com If-Range o intervalo só é atendido se o ETag ainda for o do arquivo.
+ */
+@Component
+public class ReportFileSender {
+
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	static final long[] UNSATISFIABLE = new long[0];
+
+	public void send(HttpServletRequest request, HttpServletResponse response, Path file, long size,
+					 String contentType, String filename, String etag) throws IOException {
+		response.setHeader(HttpHeaders.ETAG, etag);
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+		if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		long start = 0;
+		long length = size;
+		String range = request.getHeader(HttpHeaders.RANGE);
+		if (range != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+			long[] bounds = parseRange(range, size);
+			if (bounds == UNSATISFIABLE) {
+				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+				response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+				return;
+			}
+			if (bounds != null) {
+				start = bounds[0];
+				length = bounds[1] - bounds[0] + 1;
+				response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + bounds[0] + "-" + bounds[1] + "/" + size);
+			}
+		}
+
+		response.setContentType(contentType);
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+		response.setContentLengthLong(length);
+
+		if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+			request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+			request.setAttribute(SENDFILE_START, start);
+			request.setAttribute(SENDFILE_END, start + length);
+			return;
+		}
+		transfer(file, start, length, response.getOutputStream());
+	}
+
+	/**
+	 * Intervalo {@code [início, fim]} de um cabeçalho Range com um único intervalo de bytes. Retorna null
+	 * quando o arquivo deve ser enviado inteiro (cabeçalho inválido ou com vários intervalos, que não
+	 * são atendidos) e {@link #UNSATISFIABLE} quando o intervalo começa depois do fim do arquivo.
+	 */
+	static long[] parseRange(String header, long size) {
+		if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+			return null;
+		}
+		String spec = header.substring("bytes=".length()).trim();
+		int dash = spec.indexOf('-');
+		if (dash < 0) {
+			return null;
+		}
+		try {
+			String first = spec.substring(0, dash).trim();
+			String last = spec.substring(dash + 1).trim();
+			if (first.isEmpty()) {
+				// Sufixo: os últimos N bytes
+				long suffix = Long.parseLong(last);
+				if (suffix <= 0 || size == 0) {
+					return UNSATISFIABLE;
+				}
+				return new long[] { Math.max(0, size - suffix), size - 1 };
+			}
+			long start = Long.parseLong(first);
+			long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+			if (start >= size) {
+				return UNSATISFIABLE;
+			}
+			return start <= end ? new long[] { start, end } : null;
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Sem If-Range o intervalo vale sempre; com ele, só se o arquivo ainda for o mesmo (ETag forte igual).
+	 */
+	static boolean ifRangeMatches(String header, String etag) {
+		return header == null || header.trim().equals(etag);
+	}
+
+	static void transfer(Path file, long start, long length, OutputStream outputStream) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			WritableByteChannel target = Channels.newChannel(outputStream);
+			long position = start;
+			long end = start + length;
+			while (position < end) {
+				long sent = channel.transferTo(position, end - position, target);
+				if (sent <= 0 && position >= channel.size()) {
+					throw new IOException("Report file " + file + " is shorter than expected");
+				}
+				position += sent;
+			}
+		}
+	}
+
+	static boolean matches(String header, String etag) {
+		if (header == null) {
+			return false;
+		}
+		for (String candidate : header.split(",")) {
+			String value = candidate.trim();
+			if (value.startsWith("W/")) {
+				value = value.substring(2);
+			}
+			if (value.equals("*") || value.equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,97 @@
+package br.com.bgrbarbosa.product_catalog.controller;
+
+import br.com.bgrbarbosa.product_catalog.model.dto.ReportJobDTO;
+import br.com.bgrbarbosa.product_catalog.service.ReportFormat;
+import br.com.bgrbarbosa.product_catalog.service.ReportJobService;
+import br.com.bgrbarbosa.product_catalog.service.ReportType;
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+@RestController
+@RequestMapping(value = "/report/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Report Jobs", description = "Contém as operações para gerar relatórios em segundo plano e baixá-los quando prontos.")
+public class ReportJobController {
+
+	private final ReportJobService service;
+	private final ReportFileSender fileSender;
+
+	@PostMapping
+	@PreAuthorize("hasRole('ROLE_USER')")
+	@Operation(summary = "Solicitar um relatório", description = "Agenda a geração de um relatório de produtos (type=product, usando os filtros) ou de categorias (type=category). Consulte a situação pelo id retornado",
+			responses = {
+					@ApiResponse(responseCode = "202", description = "Relatório agendado",
+							content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReportJobDTO.class))),
+					@ApiResponse(responseCode = "503", description = "Fila de relatórios cheia, tente novamente após o Retry-After")
+			})
+	public ResponseEntity<ReportJobDTO> submit(
+			Authentication authentication,
+			ProductFilter filter,
+			@RequestParam(name = "type", defaultValue = "product") String type,
+			@RequestParam(name = "fileType", defaultValue = "pdf") String fileType) {
+
+		ReportJobDTO job = service.submit(ReportType.of(type), ReportFormat.of(fileType), filter, authentication.getName());
+		URI uri = ServletUriComponentsBuilder.fromCurrentRequestUri().path("/{id}")
+				.buildAndExpand(job.id()).toUri();
+		return ResponseEntity.accepted().location(uri).body(job);
+	}
+
+	@GetMapping("/{id}")
+	@PreAuthorize("hasRole('ROLE_USER')")
+	@Operation(summary = "Consultar a situação de um relatório", description = "Retorna a situação do relatório: QUEUED, RUNNING, DONE ou FAILED",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Situação do relatório",
+							content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReportJobDTO.class))),
+					@ApiResponse(responseCode = "404", description = "Relatório não encontrado ou expirado")
+			})
+	public ResponseEntity<ReportJobDTO> findById(Authentication authentication, @PathVariable UUID id) {
+		return ResponseEntity.ok(service.find(id, authentication.getName()));
+	}
+
+	@GetMapping("/{id}/file")
+	@PreAuthorize("hasRole('ROLE_USER')")
+	@Operation(summary = "Baixar um relatório", description = "Baixa o arquivo de um relatório concluído. Aceita Range e If-Range para retomar downloads interrompidos",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "Arquivo do relatório"),
+					@ApiResponse(responseCode = "206", description = "Parte do arquivo pedida no cabeçalho Range"),
+					@ApiResponse(responseCode = "404", description = "Relatório não encontrado ou expirado"),
+					@ApiResponse(responseCode = "409", description = "Relatório ainda em geração ou com falha"),
+					@ApiResponse(responseCode = "416", description = "Intervalo fora do tamanho do arquivo")
+			})
+	public void download(
+			Authentication authentication,
+			@PathVariable UUID id,
+			HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+
+		ReportJobDTO job = service.find(id, authentication.getName());
+		Optional<Path> file = service.file(id, authentication.getName());
+		if (file.isEmpty()) {
+			response.setStatus(HttpStatus.CONFLICT.value());
+			return;
+		}
+		// O arquivo de um job não muda depois de concluído: o id serve de ETag
+		fileSender.send(request, response, file.get(), Files.size(file.get()), ReportFormat.of(job.fileType()).getContentType(),
+				"relatorio." + job.fileType(), "\"" + id + "\"");
+	}
+}
@@ -29,7 +29,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
-import java.util.List;
 import java.util.UUID;
 
 
@@ -56,8 +55,7 @@ public class UserController {
 	public ResponseEntity<Page<UserDTO>> findAll(
 			@PageableDefault(page = 0, size = 10, sort = "uuid", direction = Sort.Direction.ASC) Pageable page){
 
-		List<UserDTO> listDTO = mapper.parseToListDTO(service.findAll(page));
-		Page<UserDTO> pageDTO = mapper.toPageDTO(listDTO, page);
+		Page<UserDTO> pageDTO = mapper.toPageDTO(service.findAll(page));
 		return ResponseEntity.ok(pageDTO);
 	}
 
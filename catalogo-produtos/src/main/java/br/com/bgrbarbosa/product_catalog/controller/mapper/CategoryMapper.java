@@ -5,8 +5,6 @@ import br.com.bgrbarbosa.product_catalog.model.dto.CategoryDTO;
 import br.com.bgrbarbosa.product_catalog.model.dto.ProductDTO;
 import org.mapstruct.Mapper;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
@@ -19,11 +17,7 @@ public interface CategoryMapper {
 
     List<CategoryDTO> parseToListDTO(List<Category>list);
 
-    default Page<CategoryDTO> toPageDTO(List<CategoryDTO> list, Pageable pageable) {
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), list.size());
-        List<CategoryDTO> pageContent = list.subList(start, end);
-
-        return new PageImpl<>(pageContent, pageable, list.size());
+    default Page<CategoryDTO> toPageDTO(Page<Category> page) {
+        return page.map(this::parseToDto);
     }
 }
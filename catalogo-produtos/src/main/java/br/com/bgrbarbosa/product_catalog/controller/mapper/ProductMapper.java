@@ -4,8 +4,7 @@ import br.com.bgrbarbosa.product_catalog.model.Product;
 import br.com.bgrbarbosa.product_catalog.model.dto.ProductDTO;
 import org.mapstruct.Mapper;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -18,11 +17,11 @@ public interface ProductMapper {
 
     List<ProductDTO> parseToListDTO(List<Product>list);
 
-    default Page<ProductDTO> toPageDTO(List<ProductDTO> list, Pageable pageable) {
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), list.size());
-        List<ProductDTO> pageContent = list.subList(start, end);
+    default Page<ProductDTO> toPageDTO(Page<Product> page) {
+        return page.map(this::parseToDto);
+    }
 
-        return new PageImpl<>(pageContent, pageable, list.size());
+    default Slice<ProductDTO> toSliceDTO(Slice<Product> slice) {
+        return slice.map(this::parseToDto);
     }
 }
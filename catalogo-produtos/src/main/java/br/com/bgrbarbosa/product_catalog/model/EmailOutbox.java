@@ -0,0 +1,62 @@
+package br.com.bgrbarbosa.product_catalog.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * E-mail a enviar, gravado na mesma transação da requisição e enviado depois pelo EmailOutboxService.
+ */
+@Entity
+@Table(name = "tb_email_outbox")
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class EmailOutbox {
+
+    public enum Status { PENDING, SENDING, SENT, DEAD }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID uuidEmail;
+
+    @Column(nullable = false)
+    private String destination;
+
+    /**
+     * Lote do envio em massa; null para e-mails avulsos.
+     */
+    @Column
+    private UUID batchId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column
+    private Instant claimedAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private Instant dtCreated;
+
+    @Column
+    private Instant dtSent;
+
+    @PrePersist
+    public void prePersist(){
+        dtCreated = Instant.now();
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.bgrbarbosa.product_catalog.model.dto;
+
+import java.util.UUID;
+
+public record CategoryFacetDTO(
+        UUID uuidCategory,
+        String nameCategory,
+        long count
+) { }
@@ -0,0 +1,12 @@
+package br.com.bgrbarbosa.product_catalog.model.dto;
+
+import java.util.UUID;
+
+public record CategoryReportRowDTO(
+        UUID uuidCategory,
+        String nameCategory,
+        Long productCount,
+        Double minPrice,
+        Double avgPrice,
+        Double maxPrice
+) { }
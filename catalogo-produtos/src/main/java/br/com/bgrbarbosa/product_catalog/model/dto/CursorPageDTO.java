@@ -0,0 +1,9 @@
+package br.com.bgrbarbosa.product_catalog.model.dto;
+
+import java.util.List;
+
+public record CursorPageDTO<T>(
+        List<T> content,
+        int size,
+        String nextCursor
+) { }
@@ -0,0 +1,13 @@
+package br.com.bgrbarbosa.product_catalog.model.dto;
+
+import java.util.UUID;
+
+public record EmailBatchDTO(
+        UUID id,
+        long total,
+        long pending,
+        long sending,
+        long sent,
+        long dead,
+        boolean finished
+) { }
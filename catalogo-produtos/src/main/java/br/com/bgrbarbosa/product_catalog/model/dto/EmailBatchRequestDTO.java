@@ -0,0 +1,11 @@
+package br.com.bgrbarbosa.product_catalog.model.dto;
+
+import br.com.bgrbarbosa.product_catalog.config.Messages;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record EmailBatchRequestDTO(
+        @NotEmpty(message = Messages.NOT_EMPTY)
+        List<String> destinations
+) { }
@@ -0,0 +1,15 @@
+package br.com.bgrbarbosa.product_catalog.model.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record EmailMessageDTO(
+        UUID id,
+        String destination,
+        String status,
+        int attempts,
+        Instant dtCreated,
+        Instant nextAttemptAt,
+        Instant dtSent,
+        String lastError
+) { }
@@ -0,0 +1,7 @@
+package br.com.bgrbarbosa.product_catalog.model.dto;
+
+public record PriceBucketDTO(
+        Double from,
+        Double to,
+        long count
+) { }
@@ -0,0 +1,9 @@
+package br.com.bgrbarbosa.product_catalog.model.dto;
+
+import java.util.List;
+
+public record ProductBatchDTO(
+        int created,
+        int failed,
+        List<ProductBatchItemDTO> items
+) { }
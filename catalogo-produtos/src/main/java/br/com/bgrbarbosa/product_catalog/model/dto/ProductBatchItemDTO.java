@@ -0,0 +1,14 @@
+package br.com.bgrbarbosa.product_catalog.model.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ProductBatchItemDTO(
+        int index,
+        String status,
+        UUID uuidProduct,
+        List<String> errors
+) {
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+}
@@ -0,0 +1,9 @@
+package br.com.bgrbarbosa.product_catalog.model.dto;
+
+import java.util.List;
+
+public record ProductFacetsDTO(
+        long total,
+        List<CategoryFacetDTO> categories,
+        List<PriceBucketDTO> prices
+) { }
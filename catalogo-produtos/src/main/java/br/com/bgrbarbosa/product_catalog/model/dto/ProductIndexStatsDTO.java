@@ -0,0 +1,14 @@
+package br.com.bgrbarbosa.product_catalog.model.dto;
+
+import java.time.Instant;
+
+public record ProductIndexStatsDTO(
+        boolean enabled,
+        boolean ready,
+        int documents,
+        int deletedDocuments,
+        int terms,
+        long postings,
+        long estimatedBytes,
+        Instant builtAt
+) { }
@@ -0,0 +1,11 @@
+package br.com.bgrbarbosa.product_catalog.model.dto;
+
+import java.util.UUID;
+
+public record ProductTextDTO(
+        UUID uuidProduct,
+        String nameProduct,
+        String descriptionProduct,
+        Double priceProduct,
+        String nameCategory
+) { }
@@ -0,0 +1,15 @@
+package br.com.bgrbarbosa.product_catalog.model.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ReportJobDTO(
+        UUID id,
+        String type,
+        String fileType,
+        String status,
+        Instant createdAt,
+        Instant finishedAt,
+        Long sizeBytes,
+        String error
+) { }
@@ -0,0 +1,7 @@
+package br.com.bgrbarbosa.product_catalog.model.dto;
+
+public record SuggestionDTO(
+        String text,
+        String type,
+        int weight
+) { }
@@ -3,12 +3,22 @@ package br.com.bgrbarbosa.product_catalog.repository;
 import br.com.bgrbarbosa.product_catalog.model.Category;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, UUID>{
     boolean existsByNameCategory(String name);
+
+    /**
+     * Quais dos uuids informados são categorias cadastradas, em uma única consulta.
+     */
+    @Query("select c.uuidCategory from Category c where c.uuidCategory in :uuids")
+    Set<UUID> findExistingIds(@Param("uuids") Collection<UUID> uuids);
 }
@@ -0,0 +1,64 @@
+package br.com.bgrbarbosa.product_catalog.repository;
+
+import br.com.bgrbarbosa.product_catalog.model.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, UUID> {
+
+    /**
+     * Mensagens pendentes cujo horário de envio já chegou, atendidas pelo índice
+     * de db/migration/V004__email_outbox_due_index.sql.
+     */
+    List<EmailOutbox> findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+            EmailOutbox.Status status, Instant now, Pageable page);
+
+    /**
+     * Como {@link #findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt}, sem as mensagens dos
+     * domínios informados (em minúsculas), para que um domínio sem vaga não ocupe a página inteira.
+     */
+    @Query("select e from EmailOutbox e where e.status = :status and e.nextAttemptAt <= :now "
+            + "and lower(substring(e.destination, locate('@', e.destination) + 1)) not in :domains "
+            + "order by e.nextAttemptAt")
+    List<EmailOutbox> findDueExcludingDomains(@Param("status") EmailOutbox.Status status, @Param("now") Instant now,
+                                              @Param("domains") Collection<String> domains, Pageable page);
+
+    /**
+     * Passa a mensagem de PENDING para SENDING; retorna 0 se outra instância já a reservou.
+     */
+    @Transactional
+    @Modifying
+    @Query("update EmailOutbox e set e.status = br.com.bgrbarbosa.product_catalog.model.EmailOutbox.Status.SENDING, "
+            + "e.claimedAt = :now where e.uuidEmail = :uuid "
+            + "and e.status = br.com.bgrbarbosa.product_catalog.model.EmailOutbox.Status.PENDING")
+    int claim(@Param("uuid") UUID uuid, @Param("now") Instant now);
+
+    /**
+     * Devolve para a fila as mensagens reservadas antes de {@code before} e nunca concluídas
+     * (instância reiniciada no meio do envio).
+     */
+    @Transactional
+    @Modifying
+    @Query("update EmailOutbox e set e.status = br.com.bgrbarbosa.product_catalog.model.EmailOutbox.Status.PENDING "
+            + "where e.status = br.com.bgrbarbosa.product_catalog.model.EmailOutbox.Status.SENDING "
+            + "and e.claimedAt < :before")
+    int releaseStale(@Param("before") Instant before);
+
+    /**
+     * Quantidade de mensagens do lote por situação: linhas [status, quantidade].
+     * Atendida pelo índice de db/migration/V005__email_outbox_batch_index.sql.
+     */
+    @Query("select e.status, count(e) from EmailOutbox e where e.batchId = :batchId group by e.status")
+    List<Object[]> countByStatus(@Param("batchId") UUID batchId);
+}
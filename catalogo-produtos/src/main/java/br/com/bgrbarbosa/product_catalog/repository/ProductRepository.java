@@ -1,12 +1,69 @@
 package br.com.bgrbarbosa.product_catalog.repository;
 
 import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductTextDTO;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
+
+    String SEARCH_VECTOR = """
+            setweight(to_tsvector('portuguese', coalesce(p.name_product, '')), 'A')
+            || setweight(to_tsvector('portuguese', coalesce(p.description_product, '')), 'B')
+            || setweight(to_tsvector('portuguese', coalesce(c.name_category, '')), 'C')
+            """;
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("select new br.com.bgrbarbosa.product_catalog.model.dto.ProductTextDTO(p.uuidProduct, p.nameProduct, "
+            + "p.descriptionProduct, p.priceProduct, c.nameCategory) from Product p join p.categoryProduct c")
+    Stream<ProductTextDTO> streamAllText();
+
+    @Query("select new br.com.bgrbarbosa.product_catalog.model.dto.ProductTextDTO(p.uuidProduct, p.nameProduct, "
+            + "p.descriptionProduct, p.priceProduct, c.nameCategory) from Product p join p.categoryProduct c "
+            + "where p.uuidProduct in :uuids")
+    List<ProductTextDTO> findTextByIds(@Param("uuids") Collection<UUID> uuids);
+
+    @Query(value = """
+            SELECT p.* FROM tb_product p, websearch_to_tsquery('portuguese', :text) query
+            WHERE p.search_vector @@ query
+            ORDER BY ts_rank(p.search_vector, query) DESC, p.uuid_product
+            """,
+            countQuery = """
+            SELECT count(*) FROM tb_product p
+            WHERE p.search_vector @@ websearch_to_tsquery('portuguese', :text)
+            """,
+            nativeQuery = true)
+    Page<Product> searchFullText(@Param("text") String text, Pageable page);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE tb_product p SET search_vector = " + SEARCH_VECTOR
+            + " FROM tb_category c WHERE c.uuid_category = p.category_uuid AND p.uuid_product = :uuid",
+            nativeQuery = true)
+    void refreshSearchVector(@Param("uuid") UUID uuid);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE tb_product p SET search_vector = " + SEARCH_VECTOR
+            + " FROM tb_category c WHERE c.uuid_category = p.category_uuid AND p.uuid_product IN (:uuids)",
+            nativeQuery = true)
+    void refreshSearchVectors(@Param("uuids") Collection<UUID> uuids);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE tb_product p SET search_vector = " + SEARCH_VECTOR
+            + " FROM tb_category c WHERE c.uuid_category = p.category_uuid AND c.uuid_category = :uuid",
+            nativeQuery = true)
+    void refreshSearchVectorByCategory(@Param("uuid") UUID uuid);
 }
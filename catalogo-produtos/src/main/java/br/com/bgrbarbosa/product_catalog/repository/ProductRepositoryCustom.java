@@ -0,0 +1,54 @@
+package br.com.bgrbarbosa.product_catalog.repository;
+
+import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.model.dto.CategoryReportRowDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductFacetsDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Busca uma página sem executar COUNT: lê pageSize + 1 registros apenas para saber se há próxima página.
+     */
+    Slice<Product> findSlice(Specification<Product> spec, Pageable page);
+
+    /**
+     * Lê os produtos do filtro por cursor do banco, fetchSize linhas por vez, limpando o contexto de
+     * persistência a cada lote para que os produtos já consumidos possam ser coletados.
+     * Deve ser consumido e fechado dentro de uma transação.
+     */
+    Stream<Product> streamAll(Specification<Product> spec, Sort sort, int fetchSize);
+
+    /**
+     * Primeiro uuid de cada bloco de chunkRows produtos do filtro, em ordem de uuid. Lê apenas a
+     * coluna uuid_product, pelo índice da chave primária. Deve ser chamado dentro de uma transação.
+     */
+    List<UUID> findChunkStarts(Specification<Product> spec, int chunkRows);
+
+    /**
+     * Contagem por categoria e por faixa de preço dos produtos do filtro, em uma única consulta agrupada
+     * por categoria. As faixas são [limite(i), limite(i + 1)), a última sem limite superior.
+     */
+    ProductFacetsDTO findFacets(Specification<Product> spec, List<Double> priceBounds);
+
+    /**
+     * Quantidade e preços mínimo, médio e máximo dos produtos do filtro por categoria, em uma única
+     * consulta agrupada, ordenada pelo nome da categoria. Sem filtro, categorias sem produtos também
+     * aparecem, com quantidade zero.
+     */
+    List<CategoryReportRowDTO> findCategorySummary(Specification<Product> spec);
+
+    /**
+     * Insere os produtos com persist (sem o SELECT do merge), em lotes JDBC de batchSize comandos, e
+     * limpa o contexto de persistência ao final. As categorias devem existir: são usadas apenas como
+     * referência. Deve ser chamado dentro de uma transação.
+     */
+    void insertAll(List<Product> products, int batchSize);
+}
@@ -0,0 +1,212 @@
+package br.com.bgrbarbosa.product_catalog.repository;
+
+import br.com.bgrbarbosa.product_catalog.model.Category;
+import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.model.dto.CategoryFacetDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.CategoryReportRowDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.PriceBucketDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductFacetsDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<Product> findSlice(Specification<Product> spec, Pageable page) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = criteriaBuilder.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(page.getSort(), root, criteriaBuilder));
+
+        List<Product> result = entityManager.createQuery(query)
+                .setFirstResult((int) page.getOffset())
+                .setMaxResults(page.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = result.size() > page.getPageSize();
+        List<Product> content = hasNext ? result.subList(0, page.getPageSize()) : result;
+        return new SliceImpl<>(content, page, hasNext);
+    }
+
+    @Override
+    public Stream<Product> streamAll(Specification<Product> spec, Sort sort, int fetchSize) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = criteriaBuilder.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        // A categoria é EAGER: sem o fetch join cada lote limpo voltaria a buscá-las uma a uma
+        root.fetch("categoryProduct");
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+        AtomicLong read = new AtomicLong();
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(product -> {
+                    if (read.incrementAndGet() % fetchSize == 0) {
+                        entityManager.clear();
+                    }
+                });
+    }
+
+    @Override
+    public List<UUID> findChunkStarts(Specification<Product> spec, int chunkRows) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = criteriaBuilder.createQuery(UUID.class);
+        Root<Product> root = query.from(Product.class);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        Path<UUID> uuid = root.get("uuidProduct");
+        query.select(uuid).orderBy(criteriaBuilder.asc(uuid));
+
+        List<UUID> starts = new ArrayList<>();
+        AtomicLong read = new AtomicLong();
+        try (Stream<UUID> uuids = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, chunkRows)
+                .getResultStream()) {
+            uuids.forEach(value -> {
+                if (read.getAndIncrement() % chunkRows == 0) {
+                    starts.add(value);
+                }
+            });
+        }
+        return starts;
+    }
+
+    @Override
+    public ProductFacetsDTO findFacets(Specification<Product> spec, List<Double> priceBounds) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        Join<Product, Category> category = root.join("categoryProduct");
+        Path<Double> price = root.get("priceProduct");
+
+        // SELECT c.uuid_category, c.name_category, count(*), sum(CASE WHEN <faixa> THEN 1 ELSE 0 END)...
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(category.get("uuidCategory"));
+        selections.add(category.get("nameCategory"));
+        Expression<Long> count = criteriaBuilder.count(root);
+        selections.add(count);
+        for (int i = 0; i < priceBounds.size(); i++) {
+            Predicate inBucket = criteriaBuilder.greaterThanOrEqualTo(price, priceBounds.get(i));
+            if (i + 1 < priceBounds.size()) {
+                inBucket = criteriaBuilder.and(inBucket, criteriaBuilder.lessThan(price, priceBounds.get(i + 1)));
+            }
+            selections.add(criteriaBuilder.sum(criteriaBuilder.<Long>selectCase().when(inBucket, 1L).otherwise(0L)));
+        }
+        query.multiselect(selections);
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(category.get("uuidCategory"), category.get("nameCategory"))
+                .orderBy(criteriaBuilder.desc(count), criteriaBuilder.asc(category.get("nameCategory")));
+
+        long total = 0;
+        long[] bucketCounts = new long[priceBounds.size()];
+        List<CategoryFacetDTO> categories = new ArrayList<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            long categoryCount = row.get(2, Long.class);
+            categories.add(new CategoryFacetDTO(row.get(0, UUID.class), row.get(1, String.class), categoryCount));
+            total += categoryCount;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                Number bucketCount = (Number) row.get(3 + i);
+                bucketCounts[i] += bucketCount == null ? 0 : bucketCount.longValue();
+            }
+        }
+
+        List<PriceBucketDTO> prices = new ArrayList<>(bucketCounts.length);
+        for (int i = 0; i < bucketCounts.length; i++) {
+            Double to = i + 1 < priceBounds.size() ? priceBounds.get(i + 1) : null;
+            prices.add(new PriceBucketDTO(priceBounds.get(i), to, bucketCounts[i]));
+        }
+        return new ProductFacetsDTO(total, categories, prices);
+    }
+
+    @Override
+    public List<CategoryReportRowDTO> findCategorySummary(Specification<Product> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CategoryReportRowDTO> query = criteriaBuilder.createQuery(CategoryReportRowDTO.class);
+        Root<Product> root = query.from(Product.class);
+        // RIGHT JOIN: sem filtro, categorias sem produtos ficam com count 0 e preços nulos
+        Join<Product, Category> category = root.join("categoryProduct", JoinType.RIGHT);
+        Path<Double> price = root.get("priceProduct");
+
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        Path<UUID> uuidCategory = category.get("uuidCategory");
+        Path<String> nameCategory = category.get("nameCategory");
+        query.select(criteriaBuilder.construct(CategoryReportRowDTO.class,
+                        uuidCategory,
+                        nameCategory,
+                        criteriaBuilder.count(root.get("uuidProduct")),
+                        criteriaBuilder.min(price),
+                        criteriaBuilder.avg(price),
+                        criteriaBuilder.max(price)))
+                .groupBy(uuidCategory, nameCategory)
+                .orderBy(criteriaBuilder.asc(nameCategory), criteriaBuilder.asc(uuidCategory));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public void insertAll(List<Product> products, int batchSize) {
+        Session session = entityManager.unwrap(Session.class);
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+        try {
+            for (Product product : products) {
+                // Referência sem consulta: a existência da categoria já foi conferida
+                product.setCategoryProduct(entityManager.getReference(Category.class,
+                        product.getCategoryProduct().getUuidCategory()));
+                entityManager.persist(product);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import java.util.UUID;
+
+/**
+ * Publicado pelos serviços a cada gravação de produto ou categoria.
+ */
+public record CatalogChangedEvent(Type type, UUID uuid) {
+
+    public enum Type { PRODUCT, CATEGORY }
+
+    public static CatalogChangedEvent product(UUID uuid) {
+        return new CatalogChangedEvent(Type.PRODUCT, uuid);
+    }
+
+    public static CatalogChangedEvent category(UUID uuid) {
+        return new CatalogChangedEvent(Type.CATEGORY, uuid);
+    }
+}
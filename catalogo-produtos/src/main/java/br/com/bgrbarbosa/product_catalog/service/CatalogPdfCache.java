@@ -0,0 +1,183 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * PDF com a lista de produtos anexado aos e-mails, gerado uma vez por {@link CatalogVersion} em um
+ * arquivo do subdiretório deste processo dentro de {@code directory}.
+ *
+ * Enquanto o catálogo não muda, todos os destinatários recebem o mesmo arquivo; envios simultâneos
+ * aguardam a mesma geração em vez de consultar e montar o documento cada um. O anexo é lido do arquivo
+ * só no envio, então cada {@link #acquire()} conta um uso até o {@link CatalogPdf#close()}: o arquivo de
+ * uma versão substituída é removido quando o último envio que o anexou termina.
+ */
+@Log4j2
+@Component
+public class CatalogPdfCache {
+
+    private final CatalogPdfWriter writer;
+    private final CatalogVersion catalogVersion;
+    private final ReentrantLock renderLock = new ReentrantLock();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer renderTime;
+
+    @Value("${catalog.email.pdf.directory:${java.io.tmpdir}/catalog-email-pdf}")
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "catalog-email-pdf");
+
+    private Path workDirectory;
+
+    // current e os contadores de uso de cada CatalogPdf são protegidos pelo monitor do cache
+    private CatalogPdf current;
+
+    public CatalogPdfCache(CatalogPdfWriter writer, CatalogVersion catalogVersion, MeterRegistry registry) {
+        this.writer = writer;
+        this.catalogVersion = catalogVersion;
+        this.hits = Counter.builder("catalog.email.pdf.cache")
+                .tag("result", "hit")
+                .description("Emails that reused the catalog PDF of the current version")
+                .register(registry);
+        this.misses = Counter.builder("catalog.email.pdf.cache")
+                .tag("result", "miss")
+                .description("Emails that had to render the catalog PDF")
+                .register(registry);
+        this.renderTime = Timer.builder("catalog.email.pdf.render")
+                .description("Time to query the products and render the catalog PDF")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        workDirectory = WorkDirectory.create(directory, "pdf-");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        replace(null);
+        WorkDirectory.delete(workDirectory);
+    }
+
+    /**
+     * PDF da versão atual do catálogo, gerando-o se a versão mudou desde a última geração. O arquivo
+     * fica disponível até o {@link CatalogPdf#close()}, que deve ser chamado uma vez após o envio.
+     */
+    public CatalogPdf acquire() {
+        long version = catalogVersion.current();
+        CatalogPdf pdf = lease(version);
+        if (pdf != null) {
+            hits.increment();
+            return pdf;
+        }
+        renderLock.lock();
+        try {
+            // Outro envio pode ter gerado esta versão enquanto aguardávamos
+            version = catalogVersion.current();
+            pdf = lease(version);
+            if (pdf != null) {
+                hits.increment();
+                return pdf;
+            }
+            misses.increment();
+            Timer.Sample sample = Timer.start();
+            pdf = render(version);
+            sample.stop(renderTime);
+            pdf.users = 1;
+            replace(pdf);
+            return pdf;
+        } finally {
+            renderLock.unlock();
+        }
+    }
+
+    private synchronized CatalogPdf lease(long version) {
+        if (current == null || current.version != version) {
+            return null;
+        }
+        current.users++;
+        return current;
+    }
+
+    private synchronized void replace(CatalogPdf pdf) {
+        CatalogPdf superseded = current;
+        current = pdf;
+        if (superseded != null && superseded.users == 0) {
+            WorkDirectory.deleteQuietly(superseded.file);
+        }
+    }
+
+    private synchronized void release(CatalogPdf pdf) {
+        if (--pdf.users == 0 && pdf != current) {
+            WorkDirectory.deleteQuietly(pdf.file);
+        }
+    }
+
+    private CatalogPdf render(long version) {
+        Path file = null;
+        try {
+            file = Files.createTempFile(workDirectory, "catalogo-" + version + "-", ".pdf");
+            long rows;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                rows = writer.write(out);
+            }
+            long size = Files.size(file);
+            log.info("Catalog PDF ::: rendered {} products in {} bytes for catalog version {}", rows, size, version);
+            return new CatalogPdf(version, file, size);
+        } catch (IOException e) {
+            WorkDirectory.deleteQuietly(file);
+            throw new UncheckedIOException("Could not write the catalog PDF", e);
+        } catch (RuntimeException e) {
+            WorkDirectory.deleteQuietly(file);
+            throw e;
+        }
+    }
+
+
+    /**
+     * Uso de um arquivo gerado; o mesmo objeto é devolvido a todos os envios da versão.
+     */
+    public final class CatalogPdf implements AutoCloseable {
+
+        private final long version;
+        private final Path file;
+        private final long size;
+        private int users;
+
+        private CatalogPdf(long version, Path file, long size) {
+            this.version = version;
+            this.file = file;
+            this.size = size;
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public Path file() {
+            return file;
+        }
+
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import com.lowagie.text.Document;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.awt.Color;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Escreve o PDF com a lista de produtos anexado aos e-mails. Os produtos vêm de um cursor do banco e a
+ * tabela usa o modo de tabela grande do OpenPDF ({@code setComplete(false)}): a cada {@code flush-rows}
+ * linhas as linhas prontas são gravadas no documento e descartadas, e o cabeçalho se repete em cada página.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogPdfWriter {
+
+    private final ProductRepository productRepository;
+
+    @Value("${catalog.report.fetch-size:500}")
+    private int fetchSize = 500;
+
+    @Value("${catalog.email.pdf.flush-rows:500}")
+    private int flushRows = 500;
+
+    /**
+     * Grava o PDF em {@code outputStream} e retorna a quantidade de produtos.
+     */
+    @Transactional(readOnly = true)
+    public long write(OutputStream outputStream) {
+        Document document = new Document();
+        PdfWriter.getInstance(document, outputStream);
+        document.open();
+
+        // Adiciona um título
+        Font fontTitle = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, new Color(0, 102, 204));
+        Paragraph title = new Paragraph("Relatório de Produtos", fontTitle);
+        title.setAlignment(Element.ALIGN_CENTER);
+        title.setSpacingAfter(20);
+        document.add(title);
+
+        // Adiciona uma tabela para os produtos
+        PdfPTable table = new PdfPTable(2); // 2 colunas: Nome e Preço
+        table.setWidthPercentage(100);
+        table.setSpacingBefore(10f);
+        table.setSpacingAfter(10f);
+        table.setComplete(false);
+
+        // Cabeçalho da tabela, repetido em cada página
+        table.addCell("Nome do Produto");
+        table.addCell("Preço");
+        table.setHeaderRows(1);
+
+        // Popula a tabela com os dados dos produtos, gravando as linhas prontas a cada bloco
+        long rows = 0;
+        try (Stream<Product> products = productRepository.streamAll(Specification.where(null), Sort.unsorted(), fetchSize)) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product produto = iterator.next();
+                table.addCell(produto.getNameProduct());
+                table.addCell("R$" + produto.getPriceProduct());
+                if (++rows % flushRows == 0) {
+                    document.add(table);
+                    // O espaço antes da tabela vale só para o primeiro bloco
+                    table.setSpacingBefore(0f);
+                }
+            }
+        }
+
+        table.setComplete(true);
+        document.add(table);
+        document.close();
+        return rows;
+    }
+}
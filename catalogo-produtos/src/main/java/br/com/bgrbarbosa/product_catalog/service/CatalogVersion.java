@@ -0,0 +1,25 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versão dos dados do catálogo nesta instância: aumenta a cada gravação de produto ou categoria,
+ * depois do commit. Conteúdos derivados do catálogo usam a versão na chave de cache.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        version.incrementAndGet();
+    }
+}
@@ -4,6 +4,7 @@ import br.com.bgrbarbosa.product_catalog.model.Category;
 import br.com.bgrbarbosa.product_catalog.model.Product;
 import br.com.bgrbarbosa.product_catalog.model.dto.CategoryDTO;
 import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
@@ -13,7 +14,7 @@ public interface CategoryService {
 
     Category insert(Category category);
 
-    List<Category> findAll(Pageable page);
+    Page<Category> findAll(Pageable page);
 
     List<Category> findAll();
 
@@ -0,0 +1,46 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.dto.CategoryReportRowDTO;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import lombok.RequiredArgsConstructor;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.data.JRMapCollectionDataSource;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class CategoryServiceReport {
+
+    private final ProductRepository repository;
+    private final ReportTemplateRegistry templates;
+
+    /**
+     * Preenche o relatório Categoria.jrxml com o resumo por categoria dos produtos do filtro: uma única
+     * consulta agrupada com quantidade e preços, sem carregar categorias nem produtos.
+     */
+    public JasperPrint fillCategoryReport(ProductFilter filter, Map<String, Object> parameters) throws JRException {
+        List<Map<String, ?>> rows = repository.findCategorySummary(filter.normalized().toSpecification()).stream()
+                .map(CategoryServiceReport::toFields)
+                .toList();
+        return JasperFillManager.fillReport(templates.get(ReportTemplateRegistry.CATEGORIA), parameters,
+                new JRMapCollectionDataSource(rows));
+    }
+
+    private static Map<String, ?> toFields(CategoryReportRowDTO row) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("uuidCategory", row.uuidCategory());
+        fields.put("nameCategory", row.nameCategory());
+        fields.put("productCount", row.productCount());
+        fields.put("minPrice", row.minPrice());
+        fields.put("avgPrice", row.avgPrice());
+        fields.put("maxPrice", row.maxPrice());
+        return fields;
+    }
+}
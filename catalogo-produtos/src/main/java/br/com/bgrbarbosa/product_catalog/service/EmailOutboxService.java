@@ -0,0 +1,384 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.config.Messages;
+import br.com.bgrbarbosa.product_catalog.model.EmailOutbox;
+import br.com.bgrbarbosa.product_catalog.model.dto.EmailBatchDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.EmailMessageDTO;
+import br.com.bgrbarbosa.product_catalog.repository.EmailOutboxRepository;
+import br.com.bgrbarbosa.product_catalog.service.exception.IllegalArgumentException;
+import br.com.bgrbarbosa.product_catalog.service.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Outbox de e-mails: a requisição apenas grava a mensagem (na sua transação) e recebe o id; o envio
+ * acontece depois, em virtual threads, sem prender threads do Tomcat enquanto o SMTP responde.
+ *
+ * A cada {@code poll-interval}, ou logo após o commit de uma nova mensagem, as mensagens vencidas são
+ * agrupadas pelo domínio do destinatário, reservadas (PENDING → SENDING) em grupos de até
+ * {@code messages-per-connection} e cada grupo é enviado por uma única conexão SMTP. No máximo
+ * {@code concurrency} conexões ficam abertas ao mesmo tempo, e no máximo {@code per-domain-concurrency}
+ * para o mesmo domínio. Ao terminar um grupo a fila é verificada de novo, sem esperar o próximo intervalo.
+ * A busca ignora os domínios que já estão no limite, então um lote grande para um só domínio não impede
+ * o envio das mensagens dos demais.
+ *
+ * Falhas são repetidas com espera exponencial a partir de {@code backoff}; após {@code max-attempts}
+ * tentativas a mensagem fica DEAD para análise.
+ */
+@Log4j2
+@Service
+public class EmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final Pattern RECIPIENT_SEPARATOR = Pattern.compile("[,;\\s]+");
+
+    private final EmailOutboxRepository repository;
+    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("email-outbox-poller").daemon().factory());
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("email-outbox-", 0).factory());
+
+    @Value("${catalog.email.outbox.poll-interval:PT5S}")
+    private Duration pollInterval = Duration.ofSeconds(5);
+
+    @Value("${catalog.email.outbox.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${catalog.email.outbox.concurrency:4}")
+    private int concurrency = 4;
+
+    @Value("${catalog.email.outbox.per-domain-concurrency:2}")
+    private int perDomainConcurrency = 2;
+
+    @Value("${catalog.email.outbox.messages-per-connection:50}")
+    private int messagesPerConnection = 50;
+
+    @Value("${catalog.email.bulk.max-recipients:20000}")
+    private int maxRecipients = 20000;
+
+    @Value("${catalog.email.outbox.max-attempts:5}")
+    private int maxAttempts = 5;
+
+    @Value("${catalog.email.outbox.backoff:PT30S}")
+    private Duration backoff = Duration.ofSeconds(30);
+
+    @Value("${catalog.email.outbox.max-backoff:PT30M}")
+    private Duration maxBackoff = Duration.ofMinutes(30);
+
+    @Value("${catalog.email.outbox.claim-timeout:PT10M}")
+    private Duration claimTimeout = Duration.ofMinutes(10);
+
+    private final Map<String, Semaphore> domainPermits = new ConcurrentHashMap<>();
+    private Semaphore permits;
+
+    public EmailOutboxService(EmailOutboxRepository repository, EmailService emailService,
+                              ApplicationEventPublisher eventPublisher) {
+        this.repository = repository;
+        this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void start() {
+        permits = new Semaphore(concurrency);
+        poller.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    /**
+     * Grava o e-mail com o relatório de produtos para {@code destination}; o envio é assíncrono.
+     */
+    @Transactional
+    public EmailMessageDTO enqueueProductList(String destination) {
+        EmailOutbox message = new EmailOutbox();
+        message.setDestination(validAddress(destination));
+        message.setStatus(EmailOutbox.Status.PENDING);
+        message.setNextAttemptAt(Instant.now());
+        message = repository.save(message);
+        eventPublisher.publishEvent(new EmailQueuedEvent(message.getUuidEmail()));
+        return toDTO(message);
+    }
+
+    /**
+     * Grava um e-mail para cada destinatário, todos no mesmo lote; o progresso é consultado pelo id do lote.
+     * Endereços repetidos são enviados uma vez só.
+     */
+    @Transactional
+    public EmailBatchDTO enqueueProductList(List<String> destinations) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String destination : destinations) {
+            distinct.add(validAddress(destination));
+        }
+        if (distinct.size() > maxRecipients) {
+            throw new IllegalArgumentException(Messages.EMAIL_BATCH_TOO_LARGE + maxRecipients);
+        }
+        UUID batchId = UUID.randomUUID();
+        Instant now = Instant.now();
+        List<EmailOutbox> messages = new ArrayList<>(distinct.size());
+        for (String destination : distinct) {
+            EmailOutbox message = new EmailOutbox();
+            message.setDestination(destination);
+            message.setBatchId(batchId);
+            message.setStatus(EmailOutbox.Status.PENDING);
+            message.setNextAttemptAt(now);
+            messages.add(message);
+        }
+        messages = repository.saveAll(messages);
+        eventPublisher.publishEvent(new EmailQueuedEvent(messages.get(0).getUuidEmail()));
+        log.info("Email batch {} queued with {} recipients", batchId, messages.size());
+        return new EmailBatchDTO(batchId, messages.size(), messages.size(), 0, 0, 0, false);
+    }
+
+    public EmailBatchDTO findBatch(UUID batchId) {
+        Map<EmailOutbox.Status, Long> counts = new EnumMap<>(EmailOutbox.Status.class);
+        for (Object[] row : repository.countByStatus(batchId)) {
+            counts.put((EmailOutbox.Status) row[0], (Long) row[1]);
+        }
+        if (counts.isEmpty()) {
+            throw new ResourceNotFoundException(Messages.RESOURCE_NOT_FOUND);
+        }
+        long pending = counts.getOrDefault(EmailOutbox.Status.PENDING, 0L);
+        long sending = counts.getOrDefault(EmailOutbox.Status.SENDING, 0L);
+        long sent = counts.getOrDefault(EmailOutbox.Status.SENT, 0L);
+        long dead = counts.getOrDefault(EmailOutbox.Status.DEAD, 0L);
+        return new EmailBatchDTO(batchId, pending + sending + sent + dead, pending, sending, sent, dead,
+                pending + sending == 0);
+    }
+
+    /**
+     * Lê os destinatários de um arquivo texto: um por linha, ou separados por vírgula, ponto e vírgula
+     * ou espaços. Linhas iniciadas por # são ignoradas.
+     */
+    public static List<String> readRecipients(InputStream input) throws IOException {
+        List<String> recipients = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.strip().startsWith("#")) {
+                continue;
+            }
+            for (String token : RECIPIENT_SEPARATOR.split(line.strip())) {
+                if (!token.isEmpty()) {
+                    recipients.add(token);
+                }
+            }
+        }
+        return recipients;
+    }
+
+    public EmailMessageDTO find(UUID id) {
+        return repository.findById(id).map(EmailOutboxService::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException(Messages.RESOURCE_NOT_FOUND));
+    }
+
+    @TransactionalEventListener
+    public void onEmailQueued(EmailQueuedEvent event) {
+        poller.execute(this::poll);
+    }
+
+    /**
+     * Reserva e dispara as mensagens vencidas, um grupo por conexão. Roda sempre na thread do poller.
+     */
+    void poll() {
+        try {
+            Instant now = Instant.now();
+            repository.releaseStale(now.minus(claimTimeout));
+            Set<String> saturated = saturatedDomains();
+            List<EmailOutbox> due = saturated.isEmpty()
+                    ? repository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(
+                            EmailOutbox.Status.PENDING, now, PageRequest.ofSize(batchSize))
+                    : repository.findDueExcludingDomains(EmailOutbox.Status.PENDING, now, saturated,
+                            PageRequest.ofSize(batchSize));
+            Map<String, List<EmailOutbox>> byDomain = due.stream()
+                    .collect(Collectors.groupingBy(message -> domain(message.getDestination()),
+                            LinkedHashMap::new, Collectors.toList()));
+            boolean saturatedNow = false;
+            for (Map.Entry<String, List<EmailOutbox>> entry : byDomain.entrySet()) {
+                Semaphore domainPermit = domainPermits.computeIfAbsent(entry.getKey(),
+                        domain -> new Semaphore(perDomainConcurrency));
+                List<EmailOutbox> messages = entry.getValue();
+                for (int from = 0; from < messages.size(); from += messagesPerConnection) {
+                    if (!permits.tryAcquire()) {
+                        // Todas as conexões em uso: o restante fica para quando um grupo terminar
+                        return;
+                    }
+                    if (!domainPermit.tryAcquire()) {
+                        permits.release();
+                        saturatedNow = true;
+                        break;
+                    }
+                    List<UUID> claimed = claim(messages.subList(from, Math.min(from + messagesPerConnection,
+                            messages.size())), now);
+                    if (claimed.isEmpty()) {
+                        domainPermit.release();
+                        permits.release();
+                        continue;
+                    }
+                    senders.execute(() -> {
+                        try {
+                            send(claimed);
+                        } finally {
+                            domainPermit.release();
+                            permits.release();
+                            pollAgain();
+                        }
+                    });
+                }
+            }
+            if (saturatedNow && due.size() == batchSize) {
+                // Mensagens de outros domínios podem ter ficado fora desta página; a próxima busca ignora os lotados
+                pollAgain();
+            }
+        } catch (RuntimeException e) {
+            log.error("Email outbox poll failed", e);
+        }
+    }
+
+    private Set<String> saturatedDomains() {
+        return domainPermits.entrySet().stream()
+                .filter(entry -> entry.getValue().availablePermits() == 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    private List<UUID> claim(List<EmailOutbox> messages, Instant now) {
+        List<UUID> claimed = new ArrayList<>(messages.size());
+        for (EmailOutbox message : messages) {
+            if (repository.claim(message.getUuidEmail(), now) > 0) {
+                claimed.add(message.getUuidEmail());
+            }
+        }
+        return claimed;
+    }
+
+    private void pollAgain() {
+        try {
+            poller.execute(this::poll);
+        } catch (RejectedExecutionException e) {
+            // Aplicação encerrando
+        }
+    }
+
+    /**
+     * Envia um grupo de mensagens reservadas por uma única conexão e registra o resultado de cada uma.
+     */
+    void send(List<UUID> ids) {
+        List<EmailOutbox> messages = repository.findAllById(ids);
+        if (messages.isEmpty()) {
+            return;
+        }
+        messages.forEach(message -> message.setAttempts(message.getAttempts() + 1));
+        List<Exception> results;
+        try {
+            results = emailService.sendingProductListByEmail(
+                    messages.stream().map(EmailOutbox::getDestination).toList());
+        } catch (RuntimeException e) {
+            results = Collections.nCopies(messages.size(), e);
+        }
+        int failures = 0;
+        for (int i = 0; i < messages.size(); i++) {
+            EmailOutbox message = messages.get(i);
+            Exception error = results.get(i);
+            if (error == null) {
+                message.setStatus(EmailOutbox.Status.SENT);
+                message.setDtSent(Instant.now());
+                message.setLastError(null);
+                continue;
+            }
+            failures++;
+            message.setLastError(truncate(error.getMessage()));
+            if (message.getAttempts() >= maxAttempts) {
+                message.setStatus(EmailOutbox.Status.DEAD);
+                log.error("Email {} to {} moved to dead letter after {} attempts", message.getUuidEmail(),
+                        message.getDestination(), message.getAttempts(), error);
+            } else {
+                message.setStatus(EmailOutbox.Status.PENDING);
+                message.setNextAttemptAt(Instant.now().plus(backoff(message.getAttempts())));
+                log.warn("Email {} failed (attempt {}), retrying at {}: {}", message.getUuidEmail(),
+                        message.getAttempts(), message.getNextAttemptAt(), error.getMessage());
+            }
+        }
+        repository.saveAll(messages);
+        log.info("Email outbox ::: sent {} of {} messages over one connection", messages.size() - failures,
+                messages.size());
+    }
+
+    /**
+     * backoff, 2 x backoff, 4 x backoff... limitado a {@code max-backoff}.
+     */
+    Duration backoff(int attempts) {
+        long factor = 1L << Math.min(attempts - 1, 20);
+        Duration delay = backoff.multipliedBy(factor);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String domain(String destination) {
+        return destination.substring(destination.lastIndexOf('@') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String validAddress(String destination) {
+        String address = destination == null ? "" : destination.strip();
+        try {
+            new InternetAddress(address, true).validate();
+        } catch (AddressException e) {
+            throw new IllegalArgumentException(Messages.INVALID_EMAIL + ": " + address);
+        }
+        return address;
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static EmailMessageDTO toDTO(EmailOutbox message) {
+        return new EmailMessageDTO(message.getUuidEmail(), message.getDestination(), message.getStatus().name(),
+                message.getAttempts(), message.getDtCreated(), message.getNextAttemptAt(), message.getDtSent(),
+                message.getLastError());
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import java.util.UUID;
+
+/**
+ * Publicado ao gravar um e-mail no outbox; depois do commit o despachante é acordado.
+ */
+public record EmailQueuedEvent(UUID uuidEmail) { }
@@ -1,6 +1,14 @@
 package br.com.bgrbarbosa.product_catalog.service;
 
+import java.util.List;
+
 public interface EmailService {
 
     void sendingProductListByEmail(String destination);
+
+    /**
+     * Envia o relatório de produtos para todos os destinatários por uma única conexão SMTP.
+     * Retorna o resultado de cada destinatário, na mesma ordem: null quando enviado, ou a falha.
+     */
+    List<Exception> sendingProductListByEmail(List<String> destinations);
 }
@@ -0,0 +1,41 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
+import net.sf.jasperreports.pdf.JRPdfExporter;
+
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Relatório preenchido pronto para exportação. Quando o preenchimento usou um virtualizador, as páginas
+ * estão em arquivo de troca até o {@link #close()}, que deve ser chamado depois de exportar.
+ *
+ * O preenchimento em paralelo gera um {@link JasperPrint} por bloco; os blocos são exportados em ordem
+ * como um único documento.
+ */
+public record FilledReport(List<JasperPrint> prints, List<JRSwapFileVirtualizer> virtualizers) implements AutoCloseable {
+
+    public FilledReport(JasperPrint print, JRSwapFileVirtualizer virtualizer) {
+        this(List.of(print), virtualizer == null ? List.of() : List.of(virtualizer));
+    }
+
+    public boolean virtualized() {
+        return !virtualizers.isEmpty();
+    }
+
+    public void exportPdf(OutputStream outputStream) throws JRException {
+        JRPdfExporter exporter = new JRPdfExporter();
+        exporter.setExporterInput(SimpleExporterInput.getInstance(prints));
+        exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(outputStream));
+        exporter.exportReport();
+    }
+
+    @Override
+    public void close() {
+        virtualizers.forEach(JRSwapFileVirtualizer::cleanup);
+    }
+}
@@ -0,0 +1,201 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRParameter;
+import net.sf.jasperreports.engine.JRPrintElement;
+import net.sf.jasperreports.engine.JRPrintPage;
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static br.com.bgrbarbosa.product_catalog.specification.ProductSpec.searchUuidRange;
+
+/**
+ * Preenche o relatório de produtos em blocos de {@code chunk-rows} produtos (em ordem de uuid), cada bloco
+ * em uma thread do pool, e entrega os {@link JasperPrint} dos blocos para serem exportados como um único PDF.
+ *
+ * Só o primeiro bloco imprime o título (parâmetro FIRST_CHUNK do template); depois do preenchimento os
+ * campos "Page N" e " of N" de cada página são renumerados com a posição e o total do documento inteiro.
+ *
+ * Cada bloco em andamento ocupa uma conexão do pool do datasource, além da conexão da transação de quem
+ * chamou. O pool de threads é compartilhado entre os relatórios, então {@code threads} limita as conexões
+ * de todos os blocos juntos: {@code threads} mais {@code catalog.report.bulkhead.concurrency} precisa ficar
+ * bem abaixo do {@code spring.datasource.hikari.maximum-pool-size} (10 por padrão), e não acompanha o
+ * número de núcleos da máquina.
+ */
+@Log4j2
+@Component
+public class ParallelProductReportFiller {
+
+    static final String FIRST_CHUNK = "FIRST_CHUNK";
+    static final String PAGE_NUMBER_KEY = "pageNumber";
+    static final String PAGE_TOTAL_KEY = "pageTotal";
+
+    private final ProductRepository repository;
+    private final ReportVirtualizerFactory virtualizers;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${catalog.report.parallel.min-rows:20000}")
+    private long minRows = 20000;
+
+    @Value("${catalog.report.parallel.chunk-rows:5000}")
+    private int chunkRows = 5000;
+
+    @Value("${catalog.report.parallel.threads:3}")
+    private int threads = 3;
+
+    @Value("${catalog.report.fetch-size:500}")
+    private int fetchSize = 500;
+
+    private ExecutorService executor;
+
+    public ParallelProductReportFiller(ProductRepository repository, ReportVirtualizerFactory virtualizers,
+                                       PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.virtualizers = virtualizers;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        // Limitado pelas conexões, não pelos núcleos: blocos excedentes aguardam na fila sem segurar conexão
+        executor = Executors.newFixedThreadPool(Math.max(threads, 1), Thread.ofPlatform().name("report-fill-", 0).daemon().factory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Vale a pena dividir o relatório: há mais de uma thread e ao menos {@code min-rows} produtos.
+     */
+    public boolean accepts(long rows) {
+        return threads > 1 && rows >= minRows;
+    }
+
+    public FilledReport fill(JasperReport report, Specification<Product> spec, Map<String, Object> parameters, long rows)
+            throws JRException {
+        List<UUID> starts = readOnlyTransaction.execute(status -> repository.findChunkStarts(spec, chunkRows));
+        List<Future<JasperPrint>> chunks = new ArrayList<>();
+        List<JRSwapFileVirtualizer> chunkVirtualizers = new ArrayList<>();
+        try {
+            for (int i = 0; i < starts.size(); i++) {
+                UUID from = i == 0 ? null : starts.get(i);
+                UUID before = i + 1 < starts.size() ? starts.get(i + 1) : null;
+                Map<String, Object> chunkParameters = new HashMap<>(parameters);
+                chunkParameters.put(FIRST_CHUNK, i == 0);
+                // Cada bloco tem seu próprio arquivo de troca quando o relatório inteiro passaria do limite
+                JRSwapFileVirtualizer virtualizer = virtualizers.forRows(rows);
+                if (virtualizer != null) {
+                    chunkVirtualizers.add(virtualizer);
+                    chunkParameters.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+                }
+                Specification<Product> chunkSpec = spec.and(searchUuidRange(from, before));
+                chunks.add(executor.submit(() -> fillChunk(report, chunkSpec, chunkParameters)));
+            }
+
+            List<JasperPrint> prints = new ArrayList<>(chunks.size());
+            for (Future<JasperPrint> chunk : chunks) {
+                prints.add(chunk.get());
+            }
+            if (prints.isEmpty()) {
+                prints.add(fillChunk(report, spec, parameters));
+            }
+            renumberPages(prints);
+            chunkVirtualizers.forEach(virtualizer -> virtualizer.setReadOnly(true));
+            log.info("Jasper Reports ::: product report filled in {} chunks of {} rows", prints.size(), chunkRows);
+            return new FilledReport(prints, chunkVirtualizers);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(chunks, chunkVirtualizers);
+            throw new JRException("Interrupted while filling the product report", e);
+        } catch (ExecutionException e) {
+            cancel(chunks, chunkVirtualizers);
+            if (e.getCause() instanceof JRException jr) {
+                throw jr;
+            }
+            throw new JRException("Could not fill the product report", e.getCause());
+        } catch (RuntimeException e) {
+            cancel(chunks, chunkVirtualizers);
+            throw e;
+        }
+    }
+
+    private JasperPrint fillChunk(JasperReport report, Specification<Product> spec, Map<String, Object> parameters)
+            throws JRException {
+        // Cada bloco tem sua transação e seu cursor: o contexto de persistência não é compartilhado entre threads
+        try {
+            return readOnlyTransaction.execute(status -> {
+                try (StreamingJRDataSource<Product> dataSource = new StreamingJRDataSource<>(
+                        repository.streamAll(spec, Sort.by("uuidProduct"), fetchSize))) {
+                    return JasperFillManager.fillReport(report, parameters, dataSource);
+                } catch (JRException e) {
+                    throw new ChunkFillException(e);
+                }
+            });
+        } catch (ChunkFillException e) {
+            throw (JRException) e.getCause();
+        }
+    }
+
+    /**
+     * Troca a numeração de cada bloco pela do documento: página i de N, com N a soma das páginas dos blocos.
+     */
+    static void renumberPages(List<JasperPrint> prints) {
+        int total = prints.stream().mapToInt(print -> print.getPages().size()).sum();
+        int number = 0;
+        for (JasperPrint print : prints) {
+            for (JRPrintPage page : print.getPages()) {
+                number++;
+                for (JRPrintElement element : page.getElements()) {
+                    if (element instanceof JRPrintText text) {
+                        if (PAGE_NUMBER_KEY.equals(text.getKey())) {
+                            text.setText("Page " + number);
+                        } else if (PAGE_TOTAL_KEY.equals(text.getKey())) {
+                            text.setText(" of " + total);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void cancel(List<Future<JasperPrint>> chunks, List<JRSwapFileVirtualizer> chunkVirtualizers) {
+        chunks.forEach(chunk -> chunk.cancel(true));
+        chunkVirtualizers.forEach(JRSwapFileVirtualizer::cleanup);
+    }
+
+    /**
+     * Leva a JRException do preenchimento para fora do {@link TransactionTemplate}.
+     */
+    private static final class ChunkFillException extends RuntimeException {
+        ChunkFillException(JRException cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache com TTL dos totais de produtos por filtro, evitando repetir o COUNT(*) a cada página.
+ * É limpo a cada alteração do catálogo, depois do commit: limpar antes permitiria que uma contagem
+ * feita entre a limpeza e o commit voltasse ao cache sem a alteração.
+ */
+@Component
+public class ProductCountCache {
+
+    private final Map<ProductFilter, CachedCount> counts = new ConcurrentHashMap<>();
+
+    @Value("${catalog.product.count-cache.ttl:PT30S}")
+    private Duration ttl = Duration.ofSeconds(30);
+
+    @Value("${catalog.product.count-cache.max-entries:1000}")
+    private int maxEntries = 1000;
+
+    public long get(ProductFilter filter, LongSupplier counter) {
+        ProductFilter key = filter.normalized();
+        long now = System.nanoTime();
+        CachedCount cached = counts.get(key);
+        if (cached != null && cached.expiresAt() - now > 0) {
+            return cached.count();
+        }
+        long count = counter.getAsLong();
+        if (counts.size() >= maxEntries) {
+            counts.clear();
+        }
+        counts.put(key, new CachedCount(count, now + ttl.toNanos()));
+        return count;
+    }
+
+    public void invalidate() {
+        counts.clear();
+    }
+
+    /**
+     * Produtos gravados e categorias (excluir uma categoria remove seus produtos em cascata).
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        invalidate();
+    }
+
+    private record CachedCount(long count, long expiresAt) { }
+}
@@ -0,0 +1,76 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta os produtos do filtro em CSV (RFC 4180) direto do cursor do banco para o writer,
+ * sem passar pelo preenchimento do Jasper. As colunas são as mesmas do relatório Produto.jrxml.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductCsvExporter {
+
+    private static final String[] HEADER = {"Código", "Nome do Produto", "Preço"};
+
+    private final ProductRepository repository;
+
+    @Value("${catalog.report.fetch-size:500}")
+    private int fetchSize = 500;
+
+    /**
+     * Escreve o cabeçalho e uma linha por produto; retorna a quantidade de produtos exportados.
+     */
+    @Transactional(readOnly = true)
+    public long export(ProductFilter filter, Writer writer) throws IOException {
+        writeRow(writer, HEADER);
+        long rows = 0;
+        try (Stream<Product> products = repository.streamAll(filter.normalized().toSpecification(), Sort.unsorted(), fetchSize)) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                writeRow(writer, String.valueOf(product.getUuidProduct()), product.getNameProduct(),
+                        product.getPriceProduct() == null ? null : product.getPriceProduct().toString());
+                rows++;
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeRow(Writer writer, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
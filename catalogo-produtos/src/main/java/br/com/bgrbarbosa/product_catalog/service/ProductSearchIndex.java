@@ -0,0 +1,429 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductIndexStatsDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductTextDTO;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Collator;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido em memória dos textos dos produtos, para responder os filtros de texto do
+ * {@link ProductFilter} sem consultar o PostgreSQL.
+ *
+ * Cada trigrama de nameProduct/descriptionProduct (em minúsculas) aponta para uma lista ordenada
+ * de ids internos (int). A busca intersecta as listas dos trigramas do termo e confirma o
+ * "contém" nos textos guardados, mantendo a mesma semântica do {@code lower(coluna) LIKE '%x%'}
+ * do ProductSpec. Produtos alterados ganham um novo id interno e o antigo é marcado como removido;
+ * quando os removidos superam os ativos o índice é reconstruído.
+ */
+@Log4j2
+@Component
+public class ProductSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final long NAME_FIELD = 0L;
+    private static final long DESCRIPTION_FIELD = 1L << 48;
+    private static final long NO_PRICE = Long.MAX_VALUE;
+    private static final Set<String> SORT_FIELDS = Set.of("nameProduct", "priceProduct", "uuidProduct");
+    // Ids por consulta ao reler produtos alterados, abaixo do limite de parâmetros do driver
+    private static final int REFRESH_CHUNK = 1_000;
+
+    private final ProductRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicBoolean rebuildAgain = new AtomicBoolean();
+    private final Set<UUID> changedDuringRebuild = Collections.synchronizedSet(new HashSet<>());
+    private final Collator collator = Collator.getInstance(Locale.of("pt", "BR"));
+
+    @Value("${catalog.search.index.enabled:false}")
+    private boolean enabled;
+
+    private volatile Segment segment;
+    private volatile Instant builtAt;
+
+    public ProductSearchIndex(ProductRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public record Hits(List<UUID> ids, long total) { }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Renomear ou excluir uma categoria altera o texto de todos os seus produtos.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.type() == CatalogChangedEvent.Type.CATEGORY && segment != null && !rebuildAsync()) {
+            rebuildAgain.set(true);
+        }
+    }
+
+    /**
+     * Reconstrói o índice em segundo plano; o índice atual continua atendendo até a troca.
+     */
+    public boolean rebuildAsync() {
+        if (!enabled || rebuilding.get()) {
+            return false;
+        }
+        Thread.ofVirtual().name("product-index-rebuild").start(this::rebuild);
+        return true;
+    }
+
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            Segment built = new Segment();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductTextDTO> products = repository.streamAllText()) {
+                    products.forEach(built::add);
+                }
+            });
+            lock.writeLock().lock();
+            try {
+                segment = built;
+                builtAt = Instant.now();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            // Alterações feitas durante a leitura podem não estar no que foi lido
+            List<UUID> changed;
+            synchronized (changedDuringRebuild) {
+                changed = new ArrayList<>(changedDuringRebuild);
+                changedDuringRebuild.clear();
+            }
+            apply(changed);
+            log.info("Product index built with {} products in {} ms", built.liveCount(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Product index rebuild failed", e);
+        } finally {
+            rebuilding.set(false);
+        }
+        if (rebuildAgain.getAndSet(false)) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Atualiza o produto no índice depois do commit da transação corrente (ou imediatamente, sem transação).
+     */
+    public void refresh(UUID uuid) {
+        refresh(List.of(uuid));
+    }
+
+    /**
+     * Como {@link #refresh(UUID)}, relendo os produtos com uma consulta por bloco de ids.
+     */
+    public void refresh(Collection<UUID> uuids) {
+        if (!enabled || uuids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<UUID> ids = List.copyOf(uuids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(ids);
+                }
+            });
+        } else {
+            apply(uuids);
+        }
+    }
+
+    public void remove(UUID uuid) {
+        refresh(uuid);
+    }
+
+    private void apply(Collection<UUID> uuids) {
+        if (rebuilding.get()) {
+            changedDuringRebuild.addAll(uuids);
+        }
+        List<UUID> ids = List.copyOf(uuids);
+        for (int from = 0; from < ids.size(); from += REFRESH_CHUNK) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + REFRESH_CHUNK, ids.size()));
+            List<ProductTextDTO> current = repository.findTextByIds(chunk);
+            boolean compact;
+            lock.writeLock().lock();
+            try {
+                Segment target = segment;
+                if (target == null) {
+                    return;
+                }
+                chunk.forEach(target::delete);
+                current.forEach(target::add);
+                compact = target.deletedCount() > Math.max(1_000, target.liveCount());
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (compact) {
+                rebuildAsync();
+            }
+        }
+    }
+
+    /**
+     * Responde o filtro pelo índice quando há termo de nome ou descrição com ao menos 3 caracteres
+     * e a ordenação usa campos guardados no índice. Caso contrário retorna vazio e a consulta vai ao banco.
+     */
+    public Optional<Hits> search(ProductFilter filter, Pageable page) {
+        Segment current = segment;
+        if (!enabled || current == null || !canAnswer(filter, page.getSort())) {
+            return Optional.empty();
+        }
+        String name = lower(filter.getNameProduct());
+        String description = lower(filter.getDescriptionProduct());
+        String category = lower(filter.getCategory());
+        long price = cents(filter.getPriceProduct());
+        long minPrice = cents(filter.getMinPrice());
+        long maxPrice = cents(filter.getMaxPrice());
+
+        lock.readLock().lock();
+        try {
+            IntList candidates = current.candidates(name, description);
+            List<Doc> matches = new ArrayList<>();
+            for (int i = 0; i < candidates.size; i++) {
+                int doc = candidates.values[i];
+                Doc d = current.docs.get(doc);
+                if (current.live.get(doc)
+                        && (name == null || d.name() != null && d.nameLower().contains(name))
+                        && (description == null || d.descriptionLower() != null && d.descriptionLower().contains(description))
+                        && (category == null || d.categoryLower() != null && d.categoryLower().contains(category))
+                        && (price == NO_PRICE || price == d.price())
+                        && (minPrice == NO_PRICE || d.price() != NO_PRICE && d.price() >= minPrice)
+                        && (maxPrice == NO_PRICE || d.price() <= maxPrice)) {
+                    matches.add(d);
+                }
+            }
+            matches.sort(comparator(page.getSort()));
+            int from = (int) Math.min(page.getOffset(), matches.size());
+            int to = Math.min(from + page.getPageSize(), matches.size());
+            List<UUID> ids = matches.subList(from, to).stream().map(Doc::uuid).toList();
+            return Optional.of(new Hits(ids, matches.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public ProductIndexStatsDTO stats() {
+        Segment current = segment;
+        if (current == null) {
+            return new ProductIndexStatsDTO(enabled, false, 0, 0, 0, 0, 0, null);
+        }
+        lock.readLock().lock();
+        try {
+            long postings = 0;
+            long bytes = 0;
+            for (IntList list : current.postings.values()) {
+                postings += list.size;
+                // entrada do HashMap + chave Long + IntList + array de int
+                bytes += 32 + 16 + 24 + 16 + 4L * list.values.length;
+            }
+            for (Doc doc : current.docs) {
+                bytes += 40 + 32 + 16 + stringBytes(doc.name()) + stringBytes(doc.nameLower())
+                        + stringBytes(doc.descriptionLower()) + stringBytes(doc.categoryLower());
+            }
+            bytes += 64L * current.docOf.size() + current.live.size() / 8;
+            return new ProductIndexStatsDTO(enabled, true, current.liveCount(), current.deletedCount(),
+                    current.postings.size(), postings, bytes, builtAt);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean canAnswer(ProductFilter filter, Sort sort) {
+        boolean hasTerm = length(filter.getNameProduct()) >= GRAM || length(filter.getDescriptionProduct()) >= GRAM;
+        return hasTerm && sort.stream().allMatch(order -> SORT_FIELDS.contains(order.getProperty()));
+    }
+
+    private Comparator<Doc> comparator(Sort sort) {
+        Comparator<Doc> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<Doc> next = switch (order.getProperty()) {
+                case "nameProduct" -> Comparator.comparing(Doc::name, Comparator.nullsLast(collator::compare));
+                case "priceProduct" -> Comparator.comparingLong(Doc::price);
+                default -> (a, b) -> compareUuid(a.uuid(), b.uuid());
+            };
+            next = order.isDescending() ? next.reversed() : next;
+            result = result == null ? next : result.thenComparing(next);
+        }
+        Comparator<Doc> byUuid = (a, b) -> compareUuid(a.uuid(), b.uuid());
+        return result == null ? byUuid : result.thenComparing(byUuid);
+    }
+
+    /**
+     * Mesma ordem do tipo uuid do PostgreSQL (bytes sem sinal).
+     */
+    private static int compareUuid(UUID a, UUID b) {
+        int cmp = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return cmp != 0 ? cmp : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    /**
+     * Preço em centavos; sem preço vira {@link #NO_PRICE}, que ordena por último como o NULL do PostgreSQL.
+     */
+    private static long cents(Double price) {
+        return price == null ? NO_PRICE : Math.round(price * 100);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.trim().length();
+    }
+
+    private static String lower(String value) {
+        return value == null || value.isBlank() ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    private static long[] grams(String text, long field) {
+        if (text == null || text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] result = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = field | ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return result;
+    }
+
+    private record Doc(UUID uuid, String name, String nameLower, String descriptionLower, String categoryLower,
+                       long price) { }
+
+    private static final class Segment {
+
+        private final Map<Long, IntList> postings = new HashMap<>();
+        private final List<Doc> docs = new ArrayList<>();
+        private final Map<UUID, Integer> docOf = new HashMap<>();
+        private final BitSet live = new BitSet();
+
+        void add(ProductTextDTO product) {
+            int doc = docs.size();
+            Doc d = new Doc(product.uuidProduct(), product.nameProduct(), lower(product.nameProduct()),
+                    lower(product.descriptionProduct()), lower(product.nameCategory()), cents(product.priceProduct()));
+            docs.add(d);
+            live.set(doc);
+            Integer previous = docOf.put(d.uuid(), doc);
+            if (previous != null) {
+                live.clear(previous);
+            }
+            for (long gram : grams(d.nameLower(), NAME_FIELD)) {
+                postings.computeIfAbsent(gram, k -> new IntList()).addAscending(doc);
+            }
+            for (long gram : grams(d.descriptionLower(), DESCRIPTION_FIELD)) {
+                postings.computeIfAbsent(gram, k -> new IntList()).addAscending(doc);
+            }
+        }
+
+        void delete(UUID uuid) {
+            Integer doc = docOf.remove(uuid);
+            if (doc != null) {
+                live.clear(doc);
+            }
+        }
+
+        int liveCount() {
+            return live.cardinality();
+        }
+
+        int deletedCount() {
+            return docs.size() - liveCount();
+        }
+
+        IntList candidates(String name, String description) {
+            List<IntList> lists = new ArrayList<>();
+            for (long gram : grams(name, NAME_FIELD)) {
+                lists.add(postings.getOrDefault(gram, IntList.EMPTY));
+            }
+            for (long gram : grams(description, DESCRIPTION_FIELD)) {
+                lists.add(postings.getOrDefault(gram, IntList.EMPTY));
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            IntList result = lists.get(0);
+            for (int i = 1; i < lists.size() && result.size > 0; i++) {
+                result = result.intersect(lists.get(i));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Lista de ids internos em ordem crescente, sem boxing.
+     */
+    private static final class IntList {
+
+        static final IntList EMPTY = new IntList(0);
+
+        private int[] values;
+        private int size;
+
+        IntList() {
+            this(4);
+        }
+
+        IntList(int capacity) {
+            this.values = new int[capacity];
+        }
+
+        void addAscending(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.max(4, size + (size >> 1)));
+            }
+            values[size++] = value;
+        }
+
+        IntList intersect(IntList other) {
+            IntList result = new IntList(Math.min(size, other.size));
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (values[i] < other.values[j]) {
+                    i++;
+                } else if (values[i] > other.values[j]) {
+                    j++;
+                } else {
+                    result.values[result.size++] = values[i];
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+    }
+}
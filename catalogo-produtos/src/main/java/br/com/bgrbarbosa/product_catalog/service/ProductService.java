@@ -1,8 +1,12 @@
 package br.com.bgrbarbosa.product_catalog.service;
 
 import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductFacetsDTO;
+import br.com.bgrbarbosa.product_catalog.specification.ProductCursor;
 import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 
 import java.io.FileNotFoundException;
@@ -14,10 +18,24 @@ public interface ProductService {
 
     Product insert(Product product);
 
-    List<Product> findAll(Pageable page, ProductFilter filter);
+    /**
+     * Insere os produtos em transações por bloco. Retorna o resultado de cada produto, na mesma ordem:
+     * null quando inserido (o uuid fica no próprio produto), ou o motivo da falha.
+     */
+    List<String> insertAll(List<Product> products);
+
+    Page<Product> findAll(Pageable page, ProductFilter filter);
+
+    Slice<Product> findSlice(Pageable page, ProductFilter filter);
+
+    Page<Product> search(String text, Pageable page);
 
     List<Product> findAll(ProductFilter filter);
 
+    Slice<Product> findAllAfter(ProductFilter filter, ProductCursor cursor, String sortField, int size);
+
+    ProductFacetsDTO findFacets(ProductFilter filter, List<Double> priceBounds);
+
     List<Product> findAll();
 
     Product findById(UUID uuid);
@@ -1,17 +1,20 @@
 package br.com.bgrbarbosa.product_catalog.service;
 
+import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.sql.DataSource;
-import java.io.IOException;
-import java.io.InputStream;
-import java.sql.SQLException;
+import java.io.ByteArrayOutputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -22,10 +25,17 @@ import java.util.Map;
 @Service
 public class ProductServiceReport {
 
-    private final ResourceLoader resourceLoader;
+    private final ReportTemplateRegistry templates;
+    private final ProductRepository repository;
+    private final ProductCountCache countCache;
+    private final ReportVirtualizerFactory virtualizers;
+    private final ParallelProductReportFiller parallelFiller;
 
     private Map<String, Object> params = new HashMap<>();
 
+    @Value("${catalog.report.fetch-size:500}")
+    private int fetchSize = 500;
+
     private static final String JASPER_DIRETORIO = "classpath:reports/";
 
     public void addParams(String key, Object value) {
@@ -45,20 +55,75 @@ public class ProductServiceReport {
             // 1. Crie o JRDataSource a partir da lista de objetos
             JRDataSource dataSource = new JRBeanCollectionDataSource(dataList);
 
-            // 2. Carregue o template do relatório
-            Resource resource = resourceLoader.getResource(JASPER_DIRETORIO.concat("Produto.jasper"));
-            InputStream stream = resource.getInputStream();
+            // 2. Obtenha o template já compilado
+            JasperReport report = templates.get(ReportTemplateRegistry.PRODUTO);
 
             // 3. Preencha o relatório com o JRDataSource
-            JasperPrint print = JasperFillManager.fillReport(stream, params, dataSource);
+            JasperPrint print = JasperFillManager.fillReport(report, params, dataSource);
 
             // 4. Exporte o relatório para PDF
             bytes = JasperExportManager.exportReportToPdf(print);
 
-        } catch (IOException | JRException e) {
+        } catch (JRException e) {
             log.error("Jasper Reports ::: ", e.getCause());
             throw new RuntimeException("Erro ao gerar o relatório PDF.", e);
         }
         return bytes;
     }
+
+    /**
+     * Gera o relatório PDF dos produtos do filtro lendo-os do banco durante o preenchimento.
+     */
+    @Transactional(readOnly = true)
+    public byte[] gerarPdf(ProductFilter filter) {
+        try (FilledReport filled = fillProductReport(filter, params)) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            filled.exportPdf(outputStream);
+            return outputStream.toByteArray();
+        } catch (JRException e) {
+            log.error("Jasper Reports ::: ", e.getCause());
+            throw new RuntimeException("Erro ao gerar o relatório PDF.", e);
+        }
+    }
+
+    /**
+     * Preenche o relatório de produtos a partir de um cursor do banco: a memória usada pelos dados
+     * não depende do tamanho do catálogo. O PostgreSQL só respeita o fetch size dentro de uma
+     * transação, por isso o método é transacional.
+     *
+     * Acima do limite de linhas do {@link ReportVirtualizerFactory} as páginas geradas vão para
+     * um arquivo de troca; o {@link FilledReport} retornado deve ser fechado depois da exportação.
+     * A partir do limite do {@link ParallelProductReportFiller} o preenchimento é dividido em blocos paralelos.
+     */
+    @Transactional(readOnly = true)
+    public FilledReport fillProductReport(ProductFilter filter, Map<String, Object> parameters) throws JRException {
+        JasperReport report = templates.get(ReportTemplateRegistry.PRODUTO);
+        ProductFilter normalized = filter.normalized();
+        Specification<Product> spec = normalized.toSpecification();
+
+        long rows = countCache.get(normalized, () -> repository.count(spec));
+        if (parallelFiller.accepts(rows)) {
+            return parallelFiller.fill(report, spec, parameters, rows);
+        }
+
+        JRSwapFileVirtualizer virtualizer = virtualizers.forRows(rows);
+        Map<String, Object> fillParameters = new HashMap<>(parameters);
+        if (virtualizer != null) {
+            fillParameters.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+        }
+        try (StreamingJRDataSource<Product> dataSource =
+                     new StreamingJRDataSource<>(repository.streamAll(spec, Sort.unsorted(), fetchSize))) {
+            JasperPrint print = JasperFillManager.fillReport(report, fillParameters, dataSource);
+            if (virtualizer != null) {
+                // Páginas já gravadas não precisam ser serializadas de novo durante a exportação
+                virtualizer.setReadOnly(true);
+            }
+            return new FilledReport(print, virtualizer);
+        } catch (JRException | RuntimeException e) {
+            if (virtualizer != null) {
+                virtualizer.cleanup();
+            }
+            throw e;
+        }
+    }
 }
@@ -0,0 +1,270 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductTextDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.SuggestionDTO;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Autocompletar por prefixo dos nomes de produtos e categorias.
+ *
+ * Os nomes ficam em um vetor ordenado (em minúsculas), de modo que todos os nomes de um prefixo
+ * formam um intervalo contíguo encontrado por busca binária. Para prefixos de até 3 caracteres, e para
+ * os mais longos cujo intervalo tem mais de {@code MAX_SCAN} nomes, os mais frequentes já ficam
+ * calculados; os demais prefixos percorrem o intervalo inteiro. O snapshot é imutável: alterações no
+ * catálogo agendam uma reconstrução em outra thread e a troca é uma única escrita volátil.
+ */
+@Log4j2
+@Component
+public class ProductSuggestIndex {
+
+    public static final int MAX_LIMIT = 20;
+
+    private static final int PRECOMPUTED_PREFIX = 3;
+    // Maior intervalo percorrido em uma consulta; intervalos maiores são pré-calculados
+    private static final int MAX_SCAN = 10_000;
+
+    private final ProductRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("product-suggest-rebuild").daemon().factory());
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    @Value("${catalog.suggest.rebuild-delay:PT2S}")
+    private Duration rebuildDelay = Duration.ofSeconds(2);
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public ProductSuggestIndex(ProductRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        executor.execute(this::rebuild);
+    }
+
+    /**
+     * Agrupa rajadas de gravações em uma única reconstrução.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (scheduled.compareAndSet(false, true)) {
+            executor.schedule(() -> {
+                scheduled.set(false);
+                rebuild();
+            }, rebuildDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public void rebuild() {
+        try {
+            long start = System.nanoTime();
+            Map<String, Entry> entries = new HashMap<>();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductTextDTO> products = repository.streamAllText()) {
+                    products.forEach(product -> {
+                        count(entries, product.nameProduct(), "product");
+                        count(entries, product.nameCategory(), "category");
+                    });
+                }
+            });
+            Snapshot built = Snapshot.of(entries.values());
+            snapshot = built;
+            log.info("Suggest index built with {} entries in {} ms", built.keys.length,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Suggest index rebuild failed", e);
+        }
+    }
+
+    /**
+     * Retorna até {@code limit} nomes que começam com o prefixo, os mais frequentes primeiro.
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key == null) {
+            return List.of();
+        }
+        return snapshot.top(key, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    private static void count(Map<String, Entry> entries, String text, String type) {
+        String key = normalize(text);
+        if (key != null) {
+            entries.computeIfAbsent(type + ':' + key, k -> new Entry(key, text.trim(), type)).weight++;
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+        final String key;
+        final String text;
+        final String type;
+        int weight;
+
+        Entry(String key, String text, String type) {
+            this.key = key;
+            this.text = text;
+            this.type = type;
+        }
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = of(List.of());
+
+        final String[] keys;
+        final String[] texts;
+        final String[] types;
+        final int[] weights;
+        final Map<String, int[]> topByPrefix;
+
+        private Snapshot(String[] keys, String[] texts, String[] types, int[] weights) {
+            this.keys = keys;
+            this.texts = texts;
+            this.types = types;
+            this.weights = weights;
+            this.topByPrefix = precompute();
+        }
+
+        static Snapshot of(Collection<Entry> entries) {
+            Entry[] sorted = entries.toArray(Entry[]::new);
+            Arrays.sort(sorted, Comparator.comparing((Entry e) -> e.key).thenComparing(e -> e.type));
+            int n = sorted.length;
+            String[] keys = new String[n];
+            String[] texts = new String[n];
+            String[] types = new String[n];
+            int[] weights = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = sorted[i].key;
+                texts[i] = sorted[i].text;
+                types[i] = sorted[i].type;
+                weights[i] = sorted[i].weight;
+            }
+            return new Snapshot(keys, texts, types, weights);
+        }
+
+        List<SuggestionDTO> top(String prefix, int limit) {
+            int[] best = topByPrefix.get(prefix);
+            if (best == null) {
+                best = topInRange(lowerBound(prefix), upperBound(prefix), limit);
+            }
+            List<SuggestionDTO> result = new ArrayList<>(Math.min(limit, best.length));
+            for (int i = 0; i < best.length && i < limit; i++) {
+                result.add(new SuggestionDTO(texts[best[i]], types[best[i]], weights[best[i]]));
+            }
+            return result;
+        }
+
+        private Map<String, int[]> precompute() {
+            Map<String, int[]> top = new HashMap<>();
+            precompute(top, 0, keys.length, 1);
+            return top;
+        }
+
+        /**
+         * Calcula os prefixos de {@code length} caracteres do intervalo [from, to), que tem um prefixo
+         * comum de {@code length - 1}, e desce nos intervalos grandes demais para percorrer na consulta.
+         */
+        private void precompute(Map<String, int[]> top, int from, int to, int length) {
+            int i = from;
+            while (i < to) {
+                if (keys[i].length() < length) {
+                    i++;
+                    continue;
+                }
+                String prefix = keys[i].substring(0, length);
+                int end = upperBound(prefix);
+                if (length <= PRECOMPUTED_PREFIX || end - i > MAX_SCAN) {
+                    top.put(prefix, topInRange(i, end, MAX_LIMIT));
+                    precompute(top, i, end, length + 1);
+                }
+                i = end;
+            }
+        }
+
+        /**
+         * Seleciona os maiores pesos do intervalo com um heap de tamanho {@code limit}.
+         */
+        private int[] topInRange(int from, int to, int limit) {
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, this::compare);
+            for (int i = from; i < to; i++) {
+                heap.add(i);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+            int[] best = new int[heap.size()];
+            for (int i = best.length - 1; i >= 0; i--) {
+                best[i] = heap.poll();
+            }
+            return best;
+        }
+
+        /**
+         * Ordem crescente de relevância: menor peso primeiro e, no empate, o nome que vem depois.
+         */
+        private int compare(int a, int b) {
+            int byWeight = Integer.compare(weights[a], weights[b]);
+            return byWeight != 0 ? byWeight : keys[b].compareTo(keys[a]);
+        }
+
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int upperBound(String prefix) {
+            int low = lowerBound(prefix);
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].startsWith(prefix)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.config.Messages;
+import br.com.bgrbarbosa.product_catalog.service.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de relatórios (PDF, planilha, CSV e e-mail com PDF) gerados ao mesmo tempo pelas requisições,
+ * para que a geração não tome a CPU e o heap das demais operações.
+ *
+ * No máximo {@code concurrency} gerações rodam juntas e {@code queue-depth} requisições aguardam até
+ * {@code max-wait} por uma vaga; além disso a requisição é recusada com 503 e Retry-After.
+ */
+@Component
+public class ReportBulkhead {
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter rejected;
+
+    @Value("${catalog.report.bulkhead.concurrency:2}")
+    private int concurrency = 2;
+
+    @Value("${catalog.report.bulkhead.queue-depth:10}")
+    private int queueDepth = 10;
+
+    @Value("${catalog.report.bulkhead.max-wait:PT30S}")
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    @Value("${catalog.report.bulkhead.retry-after:30}")
+    private long retryAfterSeconds = 30;
+
+    private volatile Semaphore permits;
+
+    public ReportBulkhead(MeterRegistry registry) {
+        Gauge.builder("catalog.report.renders", active, AtomicInteger::get)
+                .tag("state", "active")
+                .description("Reports being generated by requests")
+                .register(registry);
+        Gauge.builder("catalog.report.renders", waiting, AtomicInteger::get)
+                .tag("state", "queued")
+                .description("Requests waiting for a report generation slot")
+                .register(registry);
+        this.rejected = Counter.builder("catalog.report.renders.rejected")
+                .description("Report requests refused because the queue was full or the wait timed out")
+                .register(registry);
+    }
+
+    /**
+     * Ocupa uma vaga de geração, aguardando na fila se necessário. A vaga é liberada ao fechar o {@link Permit}.
+     */
+    public Permit acquire() {
+        Semaphore semaphore = semaphore();
+        if (!semaphore.tryAcquire()) {
+            if (waiting.incrementAndGet() > queueDepth) {
+                waiting.decrementAndGet();
+                throw reject();
+            }
+            try {
+                if (!semaphore.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw reject();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject();
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+        active.incrementAndGet();
+        return new Permit(semaphore);
+    }
+
+    private Semaphore semaphore() {
+        Semaphore semaphore = permits;
+        if (semaphore == null) {
+            synchronized (this) {
+                if (permits == null) {
+                    permits = new Semaphore(concurrency, true);
+                }
+                semaphore = permits;
+            }
+        }
+        return semaphore;
+    }
+
+    private ServiceUnavailableException reject() {
+        rejected.increment();
+        return new ServiceUnavailableException(Messages.REPORT_QUEUE_FULL, retryAfterSeconds);
+    }
+
+    public final class Permit implements AutoCloseable {
+
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                active.decrementAndGet();
+                semaphore.release();
+            }
+        }
+    }
+}
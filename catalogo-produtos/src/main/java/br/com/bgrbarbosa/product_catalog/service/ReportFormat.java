@@ -0,0 +1,40 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import java.util.Locale;
+
+/**
+ * Formatos aceitos no parâmetro fileType dos relatórios; qualquer outro valor gera PDF.
+ */
+public enum ReportFormat {
+
+    PDF("application/pdf", "pdf"),
+    CSV("text/csv", "csv"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    ReportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static ReportFormat of(String fileType) {
+        if (fileType == null) {
+            return PDF;
+        }
+        return switch (fileType.toLowerCase(Locale.ROOT)) {
+            case "csv" -> CSV;
+            case "xlsx" -> XLSX;
+            default -> PDF;
+        };
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import lombok.RequiredArgsConstructor;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperExportManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.export.JRCsvExporter;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleWriterExporterOutput;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gera qualquer relatório (tipo e formato) em um OutputStream, com os mesmos caminhos usados pelos
+ * endpoints /product/report e /category/report. Usado quando o relatório não é escrito direto na resposta.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReportGenerator {
+
+    private final ProductServiceReport productReport;
+    private final CategoryServiceReport categoryReport;
+    private final ProductCsvExporter csvExporter;
+    private final XlsxReportExporter xlsxExporter;
+
+    public void write(ReportType type, ReportFormat format, ProductFilter filter, OutputStream outputStream)
+            throws IOException, JRException {
+        if (format == ReportFormat.XLSX) {
+            if (type == ReportType.PRODUCT) {
+                xlsxExporter.exportProducts(filter, outputStream);
+            } else {
+                xlsxExporter.exportCategories(filter, outputStream);
+            }
+            return;
+        }
+        if (format == ReportFormat.CSV && type == ReportType.PRODUCT) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            csvExporter.export(filter, writer);
+            return;
+        }
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("titulo", "Relatório de Exemplo");
+        if (type == ReportType.PRODUCT) {
+            try (FilledReport filled = productReport.fillProductReport(filter, parameters)) {
+                filled.exportPdf(outputStream);
+            }
+            return;
+        }
+        JasperPrint print = categoryReport.fillCategoryReport(filter, parameters);
+        if (format == ReportFormat.CSV) {
+            JRCsvExporter exporter = new JRCsvExporter();
+            exporter.setExporterInput(new SimpleExporterInput(print));
+            exporter.setExporterOutput(new SimpleWriterExporterOutput(outputStream));
+            exporter.exportReport();
+        } else {
+            JasperExportManager.exportReportToPdfStream(print, outputStream);
+        }
+    }
+}
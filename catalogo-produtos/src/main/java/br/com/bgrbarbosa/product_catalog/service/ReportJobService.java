@@ -0,0 +1,180 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.config.Messages;
+import br.com.bgrbarbosa.product_catalog.model.dto.ReportJobDTO;
+import br.com.bgrbarbosa.product_catalog.service.exception.ResourceNotFoundException;
+import br.com.bgrbarbosa.product_catalog.service.exception.ServiceUnavailableException;
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relatórios gerados em segundo plano: a requisição recebe o id do job e consulta a situação até poder
+ * baixar o arquivo, sem manter uma thread do Tomcat e a conexão abertas durante a geração.
+ *
+ * No máximo {@code concurrency} relatórios são gerados ao mesmo tempo e {@code queue-depth} aguardam;
+ * além disso a solicitação é recusada com 503. Os arquivos ficam em um subdiretório deste processo dentro
+ * de {@code directory} e, junto com o job, são removidos {@code retention} depois de concluídos.
+ */
+@Log4j2
+@Service
+public class ReportJobService {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private final ReportGenerator generator;
+    private final Map<UUID, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("report-job-cleaner").daemon().factory());
+
+    @Value("${catalog.report.jobs.concurrency:2}")
+    private int concurrency = 2;
+
+    @Value("${catalog.report.jobs.queue-depth:20}")
+    private int queueDepth = 20;
+
+    @Value("${catalog.report.jobs.retention:PT1H}")
+    private Duration retention = Duration.ofHours(1);
+
+    @Value("${catalog.report.jobs.directory:${java.io.tmpdir}/catalog-report-jobs}")
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "catalog-report-jobs");
+
+    private Path workDirectory;
+    private ThreadPoolExecutor executor;
+
+    public ReportJobService(ReportGenerator generator) {
+        this.generator = generator;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        workDirectory = WorkDirectory.create(directory, "jobs-");
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueDepth), Thread.ofPlatform().name("report-job-", 0).factory());
+        cleaner.scheduleWithFixedDelay(this::purgeExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+        executor.shutdownNow();
+        // Jobs não sobrevivem a um restart
+        WorkDirectory.delete(workDirectory);
+    }
+
+    public ReportJobDTO submit(ReportType type, ReportFormat format, ProductFilter filter, String owner) {
+        UUID id = UUID.randomUUID();
+        ReportJob job = new ReportJob(id, type, format, filter.normalized(), owner,
+                workDirectory.resolve(id + "." + format.getExtension()));
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw new ServiceUnavailableException(Messages.REPORT_QUEUE_FULL, 30);
+        }
+        return job.toDTO();
+    }
+
+    public ReportJobDTO find(UUID id, String owner) {
+        return job(id, owner).toDTO();
+    }
+
+    /**
+     * Arquivo do job concluído; vazio enquanto ainda não terminou ou se falhou.
+     */
+    public Optional<Path> file(UUID id, String owner) {
+        ReportJob job = job(id, owner);
+        return job.status == Status.DONE ? Optional.of(job.file) : Optional.empty();
+    }
+
+    private ReportJob job(UUID id, String owner) {
+        ReportJob job = jobs.get(id);
+        if (job == null || !job.owner.equals(owner)) {
+            throw new ResourceNotFoundException(Messages.RESOURCE_NOT_FOUND);
+        }
+        return job;
+    }
+
+    private void run(ReportJob job) {
+        job.status = Status.RUNNING;
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(job.file), 64 * 1024)) {
+            generator.write(job.type, job.format, job.filter, outputStream);
+        } catch (Exception e) {
+            log.error("Report job {} failed", job.id, e);
+            WorkDirectory.deleteQuietly(job.file);
+            job.error = e.getMessage();
+            job.finish(Status.FAILED);
+            return;
+        }
+        job.finish(Status.DONE);
+    }
+
+    void purgeExpired() {
+        Instant limit = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt != null && job.finishedAt.isBefore(limit)) {
+                WorkDirectory.deleteQuietly(job.file);
+                return true;
+            }
+            return false;
+        });
+    }
+
+
+    private static final class ReportJob {
+        final UUID id;
+        final ReportType type;
+        final ReportFormat format;
+        final ProductFilter filter;
+        final String owner;
+        final Path file;
+        final Instant createdAt = Instant.now();
+        volatile Status status = Status.QUEUED;
+        volatile Instant finishedAt;
+        volatile String error;
+
+        ReportJob(UUID id, ReportType type, ReportFormat format, ProductFilter filter, String owner, Path file) {
+            this.id = id;
+            this.type = type;
+            this.format = format;
+            this.filter = filter;
+            this.owner = owner;
+            this.file = file;
+        }
+
+        void finish(Status result) {
+            finishedAt = Instant.now();
+            status = result;
+        }
+
+        ReportJobDTO toDTO() {
+            Status current = status;
+            Long size = current == Status.DONE ? file.toFile().length() : null;
+            return new ReportJobDTO(id, type.name().toLowerCase(Locale.ROOT), format.getExtension(), current.name(),
+                    createdAt, finishedAt, size, error);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import net.sf.jasperreports.engine.JRException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relatórios já gerados, guardados em disco e indexados em memória pela chave
+ * (tipo, formato, filtro normalizado, versão do catálogo).
+ *
+ * Como a versão do catálogo muda a cada gravação, uma entrada nunca fica desatualizada: entradas de
+ * versões anteriores apenas deixam de ser usadas e saem do índice na próxima gravação no cache.
+ * Requisições iguais e simultâneas geram o relatório uma única vez.
+ *
+ * O arquivo de uma entrada removida pode estar sendo baixado (o sendfile do Tomcat abre o caminho só
+ * depois que o controller retorna), então ele fica no disco por {@code delete-delay}, que deve ser
+ * maior que o download mais lento, antes de ser apagado.
+ */
+@Log4j2
+@Service
+public class ReportOutputCache {
+
+    public record CachedReport(Path file, long size, String etag, ReportFormat format, long version, Instant createdAt) { }
+
+    private final ReportGenerator generator;
+    private final CatalogVersion catalogVersion;
+    private final ReportBulkhead bulkhead;
+    private final Map<String, CachedReport> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<CachedReport>> generating = new ConcurrentHashMap<>();
+    // Arquivos fora do índice aguardando a remoção; também é o lock entre a remoção e uma nova geração
+    private final Map<Path, Instant> retired = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("report-cache-cleaner").daemon().factory());
+
+    @Value("${catalog.report.cache.directory:${java.io.tmpdir}/catalog-report-cache}")
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "catalog-report-cache");
+
+    @Value("${catalog.report.cache.max-entries:200}")
+    private int maxEntries = 200;
+
+    @Value("${catalog.report.cache.max-bytes:2147483648}")
+    private long maxBytes = 2L * 1024 * 1024 * 1024;
+
+    @Value("${catalog.report.cache.delete-delay:PT30M}")
+    private Duration deleteDelay = Duration.ofMinutes(30);
+
+    private Path workDirectory;
+
+    public ReportOutputCache(ReportGenerator generator, CatalogVersion catalogVersion, ReportBulkhead bulkhead) {
+        this.generator = generator;
+        this.catalogVersion = catalogVersion;
+        this.bulkhead = bulkhead;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        workDirectory = WorkDirectory.create(directory, "cache-");
+        cleaner.scheduleWithFixedDelay(this::purgeRetired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+        // O índice fica em memória: os arquivos não são reaproveitados por outra execução
+        WorkDirectory.delete(workDirectory);
+    }
+
+    /**
+     * Retorna o relatório da versão atual do catálogo, gerando-o se ainda não estiver em cache.
+     */
+    public CachedReport get(ReportType type, ReportFormat format, ProductFilter filter) throws IOException, JRException {
+        long version = catalogVersion.current();
+        ProductFilter normalized = filter.normalized();
+        String key = key(type, format, normalized, version);
+        CachedReport cached = entries.get(key);
+        if (cached != null && Files.exists(cached.file())) {
+            return cached;
+        }
+
+        CompletableFuture<CachedReport> own = new CompletableFuture<>();
+        CompletableFuture<CachedReport> running = generating.putIfAbsent(key, own);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            CachedReport generated = generate(key, type, format, normalized, version);
+            entries.put(key, generated);
+            evict();
+            own.complete(generated);
+            return generated;
+        } catch (IOException | JRException | RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            generating.remove(key);
+        }
+    }
+
+    private CachedReport generate(String key, ReportType type, ReportFormat format, ProductFilter filter, long version)
+            throws IOException, JRException {
+        Path file = workDirectory.resolve(key + "." + format.getExtension());
+        Path partial = Files.createTempFile(workDirectory, key, ".part");
+        // Só a geração ocupa vaga no bulkhead; acertos no cache e quem aguarda a mesma geração não
+        try {
+            ReportBulkhead.Permit permit = bulkhead.acquire();
+            try {
+                try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(partial), 64 * 1024)) {
+                    generator.write(type, format, filter, outputStream);
+                }
+                synchronized (retired) {
+                    // O mesmo caminho pode ter sido retirado antes; a nova geração não deve ser apagada
+                    retired.remove(file);
+                    Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } finally {
+                permit.close();
+            }
+        } finally {
+            WorkDirectory.deleteQuietly(partial);
+        }
+        return new CachedReport(file, Files.size(file), "\"" + key + "\"", format, version, Instant.now());
+    }
+
+    /**
+     * Remove as entradas de versões anteriores e, acima dos limites, as mais antigas.
+     */
+    private void evict() {
+        long version = catalogVersion.current();
+        entries.entrySet().removeIf(entry -> {
+            if (entry.getValue().version() < version) {
+                retire(entry.getValue());
+                return true;
+            }
+            return false;
+        });
+        long bytes = entries.values().stream().mapToLong(CachedReport::size).sum();
+        if (entries.size() <= maxEntries && bytes <= maxBytes) {
+            return;
+        }
+        for (Map.Entry<String, CachedReport> entry : entries.entrySet().stream()
+                .sorted(Comparator.comparing(e -> e.getValue().createdAt())).toList()) {
+            if (entries.size() <= maxEntries && bytes <= maxBytes) {
+                break;
+            }
+            if (entries.remove(entry.getKey(), entry.getValue())) {
+                bytes -= entry.getValue().size();
+                retire(entry.getValue());
+            }
+        }
+    }
+
+    private void retire(CachedReport report) {
+        synchronized (retired) {
+            retired.put(report.file(), Instant.now().plus(deleteDelay));
+        }
+    }
+
+    /**
+     * Apaga os arquivos retirados do índice há mais de {@code delete-delay}.
+     */
+    void purgeRetired() {
+        Instant now = Instant.now();
+        synchronized (retired) {
+            retired.entrySet().removeIf(entry -> {
+                if (entry.getValue().isAfter(now)) {
+                    return false;
+                }
+                WorkDirectory.deleteQuietly(entry.getKey());
+                return true;
+            });
+        }
+    }
+
+    private static CachedReport await(CompletableFuture<CachedReport> running) throws IOException, JRException {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof JRException jr) {
+                throw jr;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private static String key(ReportType type, ReportFormat format, ProductFilter filter, long version) {
+        String raw = String.join("|", type.name(), format.name(), Objects.toString(filter.getNameProduct()),
+                Objects.toString(filter.getDescriptionProduct()), Objects.toString(filter.getPriceProduct()),
+                Objects.toString(filter.getCategory()), Objects.toString(filter.getMinPrice()),
+                Objects.toString(filter.getMaxPrice()), Long.toString(version));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.util.JRLoader;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Templates Jasper compilados uma única vez e compartilhados pelos controllers e serviços de relatório.
+ *
+ * Usa o {@code .jasper} de classpath:reports/ quando existe; caso contrário compila o {@code .jrxml}
+ * de mesmo nome. Um {@link JasperReport} é imutável depois de compilado e pode ser preenchido
+ * por várias requisições ao mesmo tempo.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportTemplateRegistry {
+
+    public static final String PRODUTO = "Produto";
+    public static final String CATEGORIA = "Categoria";
+
+    private static final String REPORTS_DIRECTORY = "classpath:reports/";
+
+    private final ResourceLoader resourceLoader;
+
+    private final Map<String, JasperReport> templates = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void compileOnStartup() {
+        for (String name : List.of(PRODUTO, CATEGORIA)) {
+            try {
+                get(name);
+            } catch (JRException e) {
+                log.error("Jasper Reports ::: template {} could not be loaded", name, e);
+            }
+        }
+    }
+
+    public JasperReport get(String name) throws JRException {
+        JasperReport report = templates.get(name);
+        if (report == null) {
+            synchronized (templates) {
+                report = templates.get(name);
+                if (report == null) {
+                    report = load(name);
+                    templates.put(name, report);
+                }
+            }
+        }
+        return report;
+    }
+
+    private JasperReport load(String name) throws JRException {
+        long start = System.nanoTime();
+        Resource compiled = resourceLoader.getResource(REPORTS_DIRECTORY + name + ".jasper");
+        Resource source = compiled.exists() ? compiled : resourceLoader.getResource(REPORTS_DIRECTORY + name + ".jrxml");
+        try (InputStream stream = source.getInputStream()) {
+            JasperReport report = compiled.exists()
+                    ? (JasperReport) JRLoader.loadObject(stream)
+                    : JasperCompileManager.compileReport(stream);
+            log.info("Jasper Reports ::: template {} loaded from {} in {} ms", name, source.getFilename(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return report;
+        } catch (IOException e) {
+            throw new JRException("Template " + name + " not found", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.service.exception.IllegalArgumentException;
+
+import java.util.Locale;
+
+public enum ReportType {
+
+    PRODUCT,
+    CATEGORY;
+
+    public static ReportType of(String type) {
+        for (ReportType value : values()) {
+            if (value.name().equals(type == null ? null : type.toUpperCase(Locale.ROOT))) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid report type: " + type);
+    }
+}
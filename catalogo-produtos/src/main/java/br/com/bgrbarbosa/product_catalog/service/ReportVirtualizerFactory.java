@@ -0,0 +1,84 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.sf.jasperreports.engine.JRVirtualizable;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Decide se um preenchimento deve manter as páginas em memória ou usar um {@link JRSwapFileVirtualizer}.
+ *
+ * Acima de {@code row-threshold} linhas, apenas as {@code max-pages} páginas usadas mais recentemente
+ * ficam no heap; as demais são gravadas em um arquivo de troca em {@code directory}, removido no cleanup.
+ */
+@Component
+public class ReportVirtualizerFactory {
+
+    private final Counter virtualizedFills;
+    private final Counter pagesSwappedOut;
+    private final Counter pagesSwappedIn;
+
+    @Value("${catalog.report.virtualizer.row-threshold:5000}")
+    private long rowThreshold = 5000;
+
+    @Value("${catalog.report.virtualizer.max-pages:50}")
+    private int maxPages = 50;
+
+    @Value("${catalog.report.virtualizer.directory:${java.io.tmpdir}}")
+    private String directory = System.getProperty("java.io.tmpdir");
+
+    @Value("${catalog.report.virtualizer.block-size:4096}")
+    private int blockSize = 4096;
+
+    public ReportVirtualizerFactory(MeterRegistry registry) {
+        this.virtualizedFills = Counter.builder("catalog.report.virtualized.fills")
+                .description("Report fills that kept pages in a swap file")
+                .register(registry);
+        this.pagesSwappedOut = Counter.builder("catalog.report.pages.swapped")
+                .tag("direction", "out")
+                .description("Report pages written to the swap file")
+                .register(registry);
+        this.pagesSwappedIn = Counter.builder("catalog.report.pages.swapped")
+                .tag("direction", "in")
+                .description("Report pages read back from the swap file")
+                .register(registry);
+    }
+
+    /**
+     * Virtualizador para um relatório com {@code rows} linhas, ou null quando cabe em memória.
+     */
+    public JRSwapFileVirtualizer forRows(long rows) {
+        if (rows <= rowThreshold) {
+            return null;
+        }
+        virtualizedFills.increment();
+        return new CountingSwapFileVirtualizer(maxPages, new JRSwapFile(directory, blockSize, 100));
+    }
+
+    private class CountingSwapFileVirtualizer extends JRSwapFileVirtualizer {
+
+        CountingSwapFileVirtualizer(int maxSize, JRSwapFile swap) {
+            super(maxSize, swap, true);
+        }
+
+        // A assinatura herdada do StoreVirtualizer usa o tipo cru; JRVirtualizable<?> não a sobrescreve
+        @Override
+        @SuppressWarnings("rawtypes")
+        protected void pageOut(JRVirtualizable o) throws IOException {
+            super.pageOut(o);
+            pagesSwappedOut.increment();
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        protected void pageIn(JRVirtualizable o) throws IOException {
+            super.pageIn(o);
+            pagesSwappedIn.increment();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JRField;
+import net.sf.jasperreports.engine.data.JRAbstractBeanDataSource;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Fonte de dados Jasper que consome um {@link Stream} de beans à medida que o relatório é preenchido,
+ * mantendo em memória apenas o bean corrente. Os campos são lidos como no JRBeanCollectionDataSource.
+ *
+ * Só pode ser percorrida uma vez: {@link #moveFirst()} falha.
+ */
+public class StreamingJRDataSource<T> extends JRAbstractBeanDataSource implements AutoCloseable {
+
+    private final Stream<T> stream;
+    private final Iterator<T> iterator;
+    private T current;
+    private long rows;
+
+    public StreamingJRDataSource(Stream<T> stream) {
+        super(false);
+        this.stream = stream;
+        this.iterator = stream.iterator();
+    }
+
+    @Override
+    public boolean next() {
+        if (!iterator.hasNext()) {
+            current = null;
+            return false;
+        }
+        current = iterator.next();
+        rows++;
+        return true;
+    }
+
+    @Override
+    public Object getFieldValue(JRField field) throws JRException {
+        return getFieldValue(current, field);
+    }
+
+    @Override
+    public void moveFirst() throws JRException {
+        throw new JRException("A streaming data source can only be read once");
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
@@ -4,6 +4,7 @@ import br.com.bgrbarbosa.product_catalog.model.Category;
 import br.com.bgrbarbosa.product_catalog.model.Role;
 import br.com.bgrbarbosa.product_catalog.model.User;
 import br.com.bgrbarbosa.product_catalog.service.exception.UserException;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
@@ -14,7 +15,7 @@ public interface UserService {
 
     User insert(User user) throws UserException;
 
-    List<User> findAll(Pageable page);
+    Page<User> findAll(Pageable page);
 
     User findById(UUID uuid);
 
@@ -0,0 +1,54 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Diretório de arquivos temporários de um serviço. Cada processo usa um subdiretório próprio dentro do
+ * diretório configurado, que pode ser compartilhado por outras instâncias (o tmpdir, por padrão):
+ * só esse subdiretório é limpo, no encerramento.
+ */
+@Log4j2
+final class WorkDirectory {
+
+    private WorkDirectory() {
+    }
+
+    /**
+     * Cria um subdiretório vazio em {@code parent} para este processo.
+     */
+    static Path create(Path parent, String prefix) throws IOException {
+        Files.createDirectories(parent);
+        return Files.createTempDirectory(parent, prefix + ProcessHandle.current().pid() + "-");
+    }
+
+    /**
+     * Remove o subdiretório e tudo o que ainda estiver nele.
+     */
+    static void delete(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(WorkDirectory::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Could not delete work directory {}", directory, e);
+        }
+    }
+
+    static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary file {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.model.dto.CategoryReportRowDTO;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import lombok.RequiredArgsConstructor;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Exporta produtos e categorias em XLSX com o {@link SXSSFWorkbook} do POI: apenas as últimas
+ * {@code row-window} linhas ficam em memória, as anteriores vão para um arquivo temporário compactado
+ * que é descartado ao final. As linhas vêm de um cursor do banco; as colunas são as dos templates Jasper.
+ */
+@Service
+@RequiredArgsConstructor
+public class XlsxReportExporter {
+
+    private static final String[] PRODUCT_HEADER = {"Código", "Nome do Produto", "Preço"};
+    private static final String[] CATEGORY_HEADER = {"Código", "Nome da Categoria", "Produtos", "Mínimo", "Média", "Máximo"};
+
+    private static final int LAST_ROW_INDEX = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+
+    private final ProductRepository productRepository;
+
+    @Value("${catalog.report.fetch-size:500}")
+    private int fetchSize = 500;
+
+    @Value("${catalog.report.xlsx.row-window:100}")
+    private int rowWindow = 100;
+
+    @Transactional(readOnly = true)
+    public long exportProducts(ProductFilter filter, OutputStream outputStream) throws IOException {
+        try (Stream<Product> products = productRepository.streamAll(filter.normalized().toSpecification(), Sort.unsorted(), fetchSize)) {
+            return write(outputStream, "Produtos", PRODUCT_HEADER, products, product -> new Object[]{
+                    String.valueOf(product.getUuidProduct()), product.getNameProduct(), product.getPriceProduct()});
+        }
+    }
+
+    /**
+     * Resumo por categoria dos produtos do filtro, com as mesmas colunas do Categoria.jrxml.
+     */
+    @Transactional(readOnly = true)
+    public long exportCategories(ProductFilter filter, OutputStream outputStream) throws IOException {
+        List<CategoryReportRowDTO> categories = productRepository.findCategorySummary(filter.normalized().toSpecification());
+        return write(outputStream, "Categorias", CATEGORY_HEADER, categories.stream(), category -> new Object[]{
+                String.valueOf(category.uuidCategory()), category.nameCategory(), category.productCount(),
+                category.minPrice(), category.avgPrice(), category.maxPrice()});
+    }
+
+    private <T> long write(OutputStream outputStream, String sheetName, String[] header, Stream<T> rows,
+                           Function<T, Object[]> toCells) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            CellStyle headerStyle = workbook.createCellStyle();
+            headerStyle.setFont(bold);
+
+            int sheets = 1;
+            SXSSFSheet sheet = createSheet(workbook, sheetName, header, headerStyle);
+            int rowNumber = 1;
+            long written = 0;
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                // Uma planilha comporta 1.048.576 linhas; o restante continua em uma nova aba
+                if (rowNumber > LAST_ROW_INDEX) {
+                    sheet = createSheet(workbook, sheetName + " (" + ++sheets + ")", header, headerStyle);
+                    rowNumber = 1;
+                }
+                Object[] values = toCells.apply(iterator.next());
+                Row row = sheet.createRow(rowNumber++);
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] instanceof Number number) {
+                        row.createCell(i).setCellValue(number.doubleValue());
+                    } else if (values[i] != null) {
+                        row.createCell(i).setCellValue(values[i].toString());
+                    }
+                }
+                written++;
+            }
+            workbook.write(outputStream);
+            return written;
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static SXSSFSheet createSheet(SXSSFWorkbook workbook, String name, String[] header, CellStyle headerStyle) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < header.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(header[i]);
+            cell.setCellStyle(headerStyle);
+        }
+        return sheet;
+    }
+}
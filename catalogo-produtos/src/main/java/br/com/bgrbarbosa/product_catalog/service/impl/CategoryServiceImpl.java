@@ -3,11 +3,16 @@ package br.com.bgrbarbosa.product_catalog.service.impl;
 import br.com.bgrbarbosa.product_catalog.config.Messages;
 import br.com.bgrbarbosa.product_catalog.model.Category;
 import br.com.bgrbarbosa.product_catalog.repository.CategoryRepository;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.service.CatalogChangedEvent;
 import br.com.bgrbarbosa.product_catalog.service.CategoryService;
 import br.com.bgrbarbosa.product_catalog.service.exception.IllegalArgumentException;
 import br.com.bgrbarbosa.product_catalog.service.exception.ResourceNotFoundException;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
@@ -20,18 +25,22 @@ import java.util.UUID;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository repository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public Category insert(Category category) {
         if (repository.existsByNameCategory(category.getNameCategory())) {
             throw new IllegalArgumentException(Messages.ILLEGAL_ARGUMENT_EXCEPTION);
         }
-        return repository.save(category);
+        Category result = repository.save(category);
+        eventPublisher.publishEvent(CatalogChangedEvent.category(result.getUuidCategory()));
+        return result;
     }
 
     @Override
-    public List<Category> findAll(Pageable page) {
-        return repository.findAll();
+    public Page<Category> findAll(Pageable page) {
+        return repository.findAll(page);
     }
 
     @Override
@@ -52,9 +61,11 @@ public class CategoryServiceImpl implements CategoryService {
             throw new ResourceNotFoundException(Messages.RESOURCE_NOT_FOUND);
         }
         repository.deleteById(uuid);
+        eventPublisher.publishEvent(CatalogChangedEvent.category(uuid));
     }
 
     @Override
+    @Transactional
     public Category update(Category category) {
         Category aux = repository.findById(category.getUuidCategory()).orElseThrow(
                 () -> new ResourceNotFoundException(Messages.RESOURCE_NOT_FOUND)
@@ -62,6 +73,10 @@ public class CategoryServiceImpl implements CategoryService {
         aux.setNameCategory(category.getNameCategory());
         aux.setDescCategory(category.getDescCategory());
         aux.setProduct(category.getProduct());
-        return repository.save(aux);
+        Category result = repository.save(aux);
+        // O nome da categoria faz parte do vetor de busca textual dos produtos
+        productRepository.refreshSearchVectorByCategory(result.getUuidCategory());
+        eventPublisher.publishEvent(CatalogChangedEvent.category(result.getUuidCategory()));
+        return result;
     }
 }
@@ -1,91 +1,85 @@
 package br.com.bgrbarbosa.product_catalog.service.impl;
 
-import br.com.bgrbarbosa.product_catalog.model.Product;
-import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.service.CatalogPdfCache;
+import br.com.bgrbarbosa.product_catalog.service.CatalogPdfCache.CatalogPdf;
 import br.com.bgrbarbosa.product_catalog.service.EmailService;
-import com.lowagie.text.*;
-import com.lowagie.text.Font;
-import com.lowagie.text.pdf.PdfPTable;
-import com.lowagie.text.pdf.PdfWriter;
+import jakarta.activation.FileDataSource;
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
-
-import java.awt.*;
-import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
-    private final ProductRepository productRepository;
+    private final CatalogPdfCache catalogPdfCache;
 
     private final JavaMailSender mailSender;
 
+    @Value("${spring.mail.username:}")
+    private String from;
+
     @Override
     public void sendingProductListByEmail(String destination) {
-        try {
-            // 1. Obtem os produtos
-            List<Product> produtos = productRepository.findAll();
-
-            // 2. Gera o PDF na memória
-            ByteArrayOutputStream pdfStream = new ByteArrayOutputStream();
-            Document document = new Document();
-            PdfWriter.getInstance(document, pdfStream);
-            document.open();
+        // 1. PDF da versão atual do catálogo, gerado uma vez em arquivo e reaproveitado entre os destinatários
+        try (CatalogPdf pdf = catalogPdfCache.acquire()) {
+            // 2. Cria a mensagem de e-mail com anexo
+            MimeMessage message = createMessage(destination, pdf);
 
-            // Adiciona um título
-            Font fontTitle = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, new Color(0, 102, 204));
-            Paragraph title = new Paragraph("Relatório de Produtos", fontTitle);
-            title.setAlignment(Element.ALIGN_CENTER);
-            title.setSpacingAfter(20);
-            document.add(title);
-
-            // Adiciona uma tabela para os produtos
-            PdfPTable table = new PdfPTable(2); // 2 colunas: Nome e Preço
-            table.setWidthPercentage(100);
-            table.setSpacingBefore(10f);
-            table.setSpacingAfter(10f);
+            // 3. Envia o e-mail
+            mailSender.send(message);
 
-            // Cabeçalho da tabela
-            table.addCell("Nome do Produto");
-            table.addCell("Preço");
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao gerar PDF ou enviar e-mail: " + e.getMessage(), e);
+        }
+    }
 
-            // Popula a tabela com os dados dos produtos
-            for (Product produto : produtos) {
-                table.addCell(produto.getNameProduct());
-                table.addCell("R$" + produto.getPriceProduct());
+    @Override
+    public List<Exception> sendingProductListByEmail(List<String> destinations) {
+        List<Exception> results = new ArrayList<>(Collections.nCopies(destinations.size(), null));
+        MimeMessage[] messages = new MimeMessage[destinations.size()];
+        // O mesmo PDF e a mesma conexão SMTP para todas as mensagens do lote
+        try (CatalogPdf pdf = catalogPdfCache.acquire()) {
+            for (int i = 0; i < messages.length; i++) {
+                messages[i] = createMessage(destinations.get(i), pdf);
+            }
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // Falhas por mensagem; vazio quando nem a conexão foi aberta
+            Map<Object, Exception> failed = e.getFailedMessages();
+            for (int i = 0; i < messages.length; i++) {
+                results.set(i, failed.isEmpty() ? e : failed.get(messages[i]));
             }
-
-            document.add(table);
-            document.close();
-
-            // 3. Cria a mensagem de e-mail com anexo
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true); // true para multi-part (anexo)
-
-            helper.setFrom("${HOST_USERNAME}"); // email da aplicação.
-            helper.setTo(destination);
-            helper.setSubject("Relatório de Produtos - Anexo PDF");
-            helper.setText("Prezado(a),\n\nSegue em anexo o relatório completo com a lista de todos os produtos.\n\nAtenciosamente,\nBGRBARBOSA.INFO");
-
-            // Anexa o PDF
-            helper.addAttachment("relatorio-produtos.pdf", new ByteArrayResource(pdfStream.toByteArray()));
-
-            // 4. Envia o e-mail
-            mailSender.send(message);
-
         } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Erro ao gerar PDF ou enviar e-mail: " + e.getMessage());
+            Collections.fill(results, e);
         }
+        return results;
     }
 
+    private MimeMessage createMessage(String destination, CatalogPdf pdf) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true); // true para multi-part (anexo)
 
+        if (StringUtils.hasText(from)) {
+            helper.setFrom(from); // email da aplicação.
+        }
+        helper.setTo(destination);
+        helper.setSubject("Relatório de Produtos - Anexo PDF");
+        helper.setText("Prezado(a),\n\nSegue em anexo o relatório completo com a lista de todos os produtos.\n\nAtenciosamente,\nBGRBARBOSA.INFO");
 
+        // Anexa o PDF, lido do arquivo no momento do envio
+        helper.addAttachment("relatorio-produtos.pdf", new FileDataSource(pdf.file().toFile()));
+        return message;
+    }
 }
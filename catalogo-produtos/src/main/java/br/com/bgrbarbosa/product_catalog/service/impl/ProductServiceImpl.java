@@ -1,34 +1,179 @@
 package br.com.bgrbarbosa.product_catalog.service.impl;
 
 import br.com.bgrbarbosa.product_catalog.config.Messages;
+import br.com.bgrbarbosa.product_catalog.model.Category;
 import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductFacetsDTO;
+import br.com.bgrbarbosa.product_catalog.repository.CategoryRepository;
 import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.service.CatalogChangedEvent;
+import br.com.bgrbarbosa.product_catalog.service.ProductCountCache;
+import br.com.bgrbarbosa.product_catalog.service.ProductSearchIndex;
 import br.com.bgrbarbosa.product_catalog.service.ProductService;
+import br.com.bgrbarbosa.product_catalog.service.exception.IllegalArgumentException;
 import br.com.bgrbarbosa.product_catalog.service.exception.ResourceNotFoundException;
+import br.com.bgrbarbosa.product_catalog.specification.ProductCursor;
 import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static br.com.bgrbarbosa.product_catalog.specification.ProductSpec.searchAfterCursor;
+
+@Log4j2
 @Service
 @RequiredArgsConstructor
 public class ProductServiceImpl implements ProductService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_PRICE_BUCKETS = 20;
+    private static final List<Double> DEFAULT_PRICE_BOUNDS = List.of(0.0, 50.0, 100.0, 500.0, 1000.0);
+
+    private static final Set<String> SORTABLE_FIELDS =
+            Set.of("uuidProduct", "nameProduct", "descriptionProduct", "priceProduct", "dtCreated", "dtUpdated");
+
     private final ProductRepository repository;
+    private final CategoryRepository categoryRepository;
+    private final ProductCountCache countCache;
+    private final ProductSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${catalog.product.batch.chunk-size:500}")
+    private int batchChunkSize = 500;
+
+    @Value("${catalog.product.batch.max-items:50000}")
+    private int batchMaxItems = 50000;
 
     @Override
     @Transactional
     public Product insert(Product product) {
-        return repository.save(product);
+        Product result = repository.save(product);
+        repository.refreshSearchVector(result.getUuidProduct());
+        searchIndex.refresh(result.getUuidProduct());
+        eventPublisher.publishEvent(CatalogChangedEvent.product(result.getUuidProduct()));
+        return result;
     }
 
+    /**
+     * As categorias são conferidas em uma consulta; cada bloco de {@code chunk-size} produtos é gravado
+     * em uma transação, com os INSERTs enviados em lote JDBC. Se um bloco falhar, os produtos dele são
+     * gravados um a um para que apenas os inválidos fiquem de fora.
+     */
     @Override
-    public List<Product> findAll(Pageable page, ProductFilter filter) {
-        return repository.findAll(filter.toSpecification());
+    public List<String> insertAll(List<Product> products) {
+        if (products.size() > batchMaxItems) {
+            throw new IllegalArgumentException(Messages.PRODUCT_BATCH_TOO_LARGE + batchMaxItems);
+        }
+        List<String> errors = new ArrayList<>(Collections.nCopies(products.size(), null));
+        Set<UUID> categoryIds = products.stream()
+                .map(Product::getCategoryProduct)
+                .filter(Objects::nonNull)
+                .map(Category::getUuidCategory)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<UUID> existingCategories = categoryIds.isEmpty() ? Set.of() : categoryRepository.findExistingIds(categoryIds);
+
+        List<Integer> accepted = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            UUID categoryId = product.getCategoryProduct() == null ? null : product.getCategoryProduct().getUuidCategory();
+            if (product.getUuidProduct() != null) {
+                errors.set(i, Messages.PRODUCT_BATCH_ID_NOT_ALLOWED);
+            } else if (categoryId == null || !existingCategories.contains(categoryId)) {
+                errors.set(i, Messages.RESOURCE_NOT_FOUND + "category " + categoryId);
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        int inserted = 0;
+        for (int from = 0; from < accepted.size(); from += batchChunkSize) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + batchChunkSize, accepted.size()));
+            List<Product> chunkProducts = chunk.stream().map(products::get).toList();
+            try {
+                insertChunk(chunkProducts);
+                inserted += chunk.size();
+            } catch (RuntimeException e) {
+                log.warn("Product batch chunk of {} failed, inserting one by one: {}", chunk.size(), e.getMessage());
+                for (Integer index : chunk) {
+                    Product product = products.get(index);
+                    // O id gerado no bloco desfeito não existe no banco
+                    product.setUuidProduct(null);
+                    try {
+                        insertChunk(List.of(product));
+                        inserted++;
+                    } catch (RuntimeException itemError) {
+                        product.setUuidProduct(null);
+                        errors.set(index, Objects.requireNonNullElse(
+                                NestedExceptionUtils.getMostSpecificCause(itemError).getMessage(), Messages.BAD_REQUEST));
+                    }
+                }
+            }
+        }
+        log.info("Product batch ::: {} of {} products inserted", inserted, products.size());
+        return errors;
+    }
+
+    private void insertChunk(List<Product> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.insertAll(chunk, batchChunkSize);
+            List<UUID> ids = chunk.stream().map(Product::getUuidProduct).toList();
+            repository.refreshSearchVectors(ids);
+            searchIndex.refresh(ids);
+            eventPublisher.publishEvent(CatalogChangedEvent.product(ids.get(0)));
+        });
+    }
+
+    @Override
+    public Page<Product> findAll(Pageable page, ProductFilter filter) {
+        ProductFilter normalized = filter.normalized();
+        Pageable sortable = sortablePage(page);
+        Optional<ProductSearchIndex.Hits> hits = searchIndex.search(normalized, sortable);
+        if (hits.isPresent()) {
+            return new PageImpl<>(findAllInOrder(hits.get().ids()), sortable, hits.get().total());
+        }
+        Specification<Product> spec = normalized.toSpecification();
+        Slice<Product> slice = repository.findSlice(spec, sortable);
+        return PageableExecutionUtils.getPage(slice.getContent(), sortable,
+                () -> countCache.get(normalized, () -> repository.count(spec)));
+    }
+
+    @Override
+    public Slice<Product> findSlice(Pageable page, ProductFilter filter) {
+        return repository.findSlice(filter.normalized().toSpecification(), sortablePage(page));
+    }
+
+    @Override
+    public Page<Product> search(String text, Pageable page) {
+        if (text == null || text.isBlank()) {
+            return Page.empty(page);
+        }
+        return repository.searchFullText(text.trim(), PageRequest.of(page.getPageNumber(), page.getPageSize()));
     }
 
     @Override
@@ -36,6 +181,31 @@ public class ProductServiceImpl implements ProductService {
         return repository.findAll(filter.toSpecification());
     }
 
+    @Override
+    public Slice<Product> findAllAfter(ProductFilter filter, ProductCursor cursor, String sortField, int size) {
+        if (!ProductCursor.SORT_FIELDS.contains(sortField) || size < 1 || size > MAX_CURSOR_PAGE_SIZE
+                || (cursor != null && !cursor.sortField().equals(sortField))) {
+            throw new IllegalArgumentException(Messages.BAD_REQUEST);
+        }
+        Sort sort = Sort.by(Sort.Order.asc(sortField), Sort.Order.asc("uuidProduct"));
+        Specification<Product> spec = filter.normalized().toSpecification().and(searchAfterCursor(cursor));
+        return repository.findSlice(spec, PageRequest.of(0, size, sort));
+    }
+
+    @Override
+    public ProductFacetsDTO findFacets(ProductFilter filter, List<Double> priceBounds) {
+        List<Double> bounds = priceBounds == null || priceBounds.isEmpty() ? DEFAULT_PRICE_BOUNDS : priceBounds;
+        if (bounds.size() > MAX_PRICE_BUCKETS) {
+            throw new IllegalArgumentException(Messages.BAD_REQUEST);
+        }
+        for (int i = 0; i < bounds.size(); i++) {
+            if (bounds.get(i) == null || (i > 0 && bounds.get(i) <= bounds.get(i - 1))) {
+                throw new IllegalArgumentException(Messages.BAD_REQUEST);
+            }
+        }
+        return repository.findFacets(filter.normalized().toSpecification(), bounds);
+    }
+
     @Override
     public List<Product> findAll() {
         return repository.findAll();
@@ -54,9 +224,12 @@ public class ProductServiceImpl implements ProductService {
             throw new ResourceNotFoundException(Messages.RESOURCE_NOT_FOUND);
         }
         repository.deleteById(uuid);
+        searchIndex.remove(uuid);
+        eventPublisher.publishEvent(CatalogChangedEvent.product(uuid));
     }
 
     @Override
+    @Transactional
     public Product update(Product product) {
         Product aux = repository.findById(product.getUuidProduct()).orElseThrow(
                 () -> new ResourceNotFoundException(Messages.RESOURCE_NOT_FOUND)
@@ -66,6 +239,33 @@ public class ProductServiceImpl implements ProductService {
         aux.setPriceProduct(product.getPriceProduct());
         aux.setUrlProduct(product.getUrlProduct());
         aux.setCategoryProduct(product.getCategoryProduct());
-        return repository.save(aux);
+        Product result = repository.save(aux);
+        repository.refreshSearchVector(result.getUuidProduct());
+        searchIndex.refresh(result.getUuidProduct());
+        eventPublisher.publishEvent(CatalogChangedEvent.product(result.getUuidProduct()));
+        return result;
+    }
+
+    /**
+     * Carrega apenas os produtos da página respondida pelo índice, preservando a ordem dos ids.
+     */
+    private List<Product> findAllInOrder(List<UUID> ids) {
+        Map<UUID, Product> byId = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getUuidProduct, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Mantém apenas ordenações sobre colunas reais de {@link Product} e acrescenta
+     * o uuidProduct como desempate, para que a paginação no banco seja estável.
+     */
+    private Pageable sortablePage(Pageable page) {
+        List<Sort.Order> orders = page.getSort().stream()
+                .filter(order -> SORTABLE_FIELDS.contains(order.getProperty()))
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (orders.stream().noneMatch(order -> order.getProperty().equals("uuidProduct"))) {
+            orders.add(Sort.Order.asc("uuidProduct"));
+        }
+        return PageRequest.of(page.getPageNumber(), page.getPageSize(), Sort.by(orders));
     }
 }
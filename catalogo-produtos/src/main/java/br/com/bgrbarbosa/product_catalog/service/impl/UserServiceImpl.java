@@ -8,6 +8,7 @@ import br.com.bgrbarbosa.product_catalog.service.exception.ResourceNotFoundExcep
 import br.com.bgrbarbosa.product_catalog.service.exception.UserException;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -45,8 +46,8 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     }
 
     @Override
-    public List<User> findAll(Pageable page) {
-        return repository.findAll();
+    public Page<User> findAll(Pageable page) {
+        return repository.findAll(page);
     }
 
     @Override
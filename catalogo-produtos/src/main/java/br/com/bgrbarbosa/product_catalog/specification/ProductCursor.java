@@ -0,0 +1,81 @@
+package br.com.bgrbarbosa.product_catalog.specification;
+
+import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.service.exception.IllegalArgumentException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Cursor opaco da paginação por keyset: guarda o valor da chave de ordenação
+ * e o uuidProduct do último produto entregue na página anterior.
+ *
+ * nameProduct, priceProduct e dtCreated aceitam NULL: {@code sortValue} nulo representa uma chave
+ * NULL, gravada no token com um marcador próprio para não se confundir com o texto "null".
+ */
+public record ProductCursor(String sortField, String sortValue, UUID uuidProduct) {
+
+    public static final Set<String> SORT_FIELDS = Set.of("nameProduct", "priceProduct", "dtCreated", "uuidProduct");
+
+    private static final String SEPARATOR = "|";
+    private static final String VALUE_PREFIX = "=";
+    private static final String NULL_VALUE = "~";
+
+    public ProductCursor {
+        if (!SORT_FIELDS.contains(sortField) || uuidProduct == null) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public static ProductCursor of(Product last, String sortField) {
+        Object value = switch (sortField) {
+            case "nameProduct" -> last.getNameProduct();
+            case "priceProduct" -> last.getPriceProduct();
+            case "dtCreated" -> last.getDtCreated();
+            default -> last.getUuidProduct();
+        };
+        return new ProductCursor(sortField, value == null ? null : value.toString(), last.getUuidProduct());
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int last = raw.lastIndexOf(SEPARATOR);
+            String value = raw.substring(first + 1, last);
+            if (!value.equals(NULL_VALUE) && !value.startsWith(VALUE_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new ProductCursor(raw.substring(0, first),
+                    value.equals(NULL_VALUE) ? null : value.substring(VALUE_PREFIX.length()),
+                    UUID.fromString(raw.substring(last + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String value = sortValue == null ? NULL_VALUE : VALUE_PREFIX + sortValue;
+        String raw = sortField + SEPARATOR + value + SEPARATOR + uuidProduct;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Converte o valor textual da chave para o tipo do atributo correspondente em {@link Product};
+     * nulo quando a chave do último produto era NULL.
+     */
+    public Comparable<?> sortKey() {
+        if (sortValue == null && !"uuidProduct".equals(sortField)) {
+            return null;
+        }
+        return switch (sortField) {
+            case "nameProduct" -> sortValue;
+            case "priceProduct" -> Double.valueOf(sortValue);
+            case "dtCreated" -> LocalDate.parse(sortValue);
+            default -> uuidProduct;
+        };
+    }
+}
@@ -1,10 +1,17 @@
 package br.com.bgrbarbosa.product_catalog.specification;
 
 import br.com.bgrbarbosa.product_catalog.model.Product;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.ObjectUtils;
 
+import java.util.Locale;
+import java.util.UUID;
+
 
 @Slf4j
 public class ProductSpec {
@@ -14,7 +21,7 @@ public class ProductSpec {
             if (ObjectUtils.isEmpty(nameProduct)) {
                 return null;
             }
-            return criteriaBuilder.like(root.get("nameProduct"), "%" + nameProduct + "%");
+            return containsIgnoreCase(criteriaBuilder, root.get("nameProduct"), nameProduct);
         });
     }
 
@@ -23,7 +30,7 @@ public class ProductSpec {
             if (ObjectUtils.isEmpty(descriptionProduct)) {
                 return null;
             }
-            return criteriaBuilder.like(root.get("descriptionProduct"), "%" + descriptionProduct + "%");
+            return containsIgnoreCase(criteriaBuilder, root.get("descriptionProduct"), descriptionProduct);
         });
     }
 
@@ -36,12 +43,82 @@ public class ProductSpec {
         });
     }
 
+    /**
+     * Faixa de preço (limites inclusivos, qualquer um opcional), atendida pelo índice B-tree
+     * de db/migration/V003__product_price_index.sql.
+     */
+    public static Specification<Product> searchPriceBetween(Double minPrice, Double maxPrice) {
+        return ((root, query, criteriaBuilder) -> {
+            Path<Double> price = root.get("priceProduct");
+            if (minPrice != null && maxPrice != null) {
+                return criteriaBuilder.between(price, minPrice, maxPrice);
+            }
+            if (minPrice != null) {
+                return criteriaBuilder.greaterThanOrEqualTo(price, minPrice);
+            }
+            if (maxPrice != null) {
+                return criteriaBuilder.lessThanOrEqualTo(price, maxPrice);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Produtos com uuid em [from, before), limites opcionais. Delimita os blocos do relatório paralelo.
+     */
+    public static Specification<Product> searchUuidRange(UUID from, UUID before) {
+        return (root, query, criteriaBuilder) -> {
+            Path<UUID> uuid = root.get("uuidProduct");
+            if (from != null && before != null) {
+                return criteriaBuilder.and(criteriaBuilder.greaterThanOrEqualTo(uuid, from), criteriaBuilder.lessThan(uuid, before));
+            }
+            if (from != null) {
+                return criteriaBuilder.greaterThanOrEqualTo(uuid, from);
+            }
+            if (before != null) {
+                return criteriaBuilder.lessThan(uuid, before);
+            }
+            return null;
+        };
+    }
+
     public static Specification<Product> searchCategoryName(String category) {
         return (root, query, criteriaBuilder) -> {
             if (ObjectUtils.isEmpty(category)) {
                 return null;
             }
-            return criteriaBuilder.like(root.join("categoryProduct").get("nameCategory"), "%" + category + "%");
+            return containsIgnoreCase(criteriaBuilder, root.join("categoryProduct").get("nameCategory"), category);
+        };
+    }
+
+    /**
+     * lower(coluna) LIKE '%valor%': formato atendido pelos índices GIN de trigramas
+     * criados em db/migration/V001__product_search_trigram.sql.
+     */
+    private static Predicate containsIgnoreCase(CriteriaBuilder criteriaBuilder, Expression<String> field, String value) {
+        return criteriaBuilder.like(criteriaBuilder.lower(field), "%" + value.toLowerCase(Locale.ROOT) + "%");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Product> searchAfterCursor(ProductCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return null;
+            }
+            Path<UUID> uuid = root.get("uuidProduct");
+            if ("uuidProduct".equals(cursor.sortField())) {
+                return criteriaBuilder.greaterThan(uuid, cursor.uuidProduct());
+            }
+            Path<Comparable> key = root.get(cursor.sortField());
+            Comparable value = cursor.sortKey();
+            // Em ordem crescente o PostgreSQL coloca as chaves NULL depois de todas as demais
+            if (value == null) {
+                return criteriaBuilder.and(criteriaBuilder.isNull(key), criteriaBuilder.greaterThan(uuid, cursor.uuidProduct()));
+            }
+            return criteriaBuilder.or(
+                    criteriaBuilder.greaterThan(key, value),
+                    criteriaBuilder.and(criteriaBuilder.equal(key, value), criteriaBuilder.greaterThan(uuid, cursor.uuidProduct())),
+                    criteriaBuilder.isNull(key));
         };
     }
 }
@@ -1,6 +1,8 @@
 package br.com.bgrbarbosa.product_catalog.specification.filter;
 
+import br.com.bgrbarbosa.product_catalog.config.Messages;
 import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.service.exception.IllegalArgumentException;
 import static br.com.bgrbarbosa.product_catalog.specification.ProductSpec.*;
 
 import lombok.AllArgsConstructor;
@@ -18,6 +20,12 @@ public class ProductFilter {
     private String descriptionProduct;
     private Double priceProduct;
     private String category;
+    private Double minPrice;
+    private Double maxPrice;
+
+    public ProductFilter(String nameProduct, String descriptionProduct, Double priceProduct, String category) {
+        this(nameProduct, descriptionProduct, priceProduct, category, null, null);
+    }
 
     public Specification<Product> toSpecification() {
         Specification<Product> spec = Specification.where(null);
@@ -34,6 +42,10 @@ public class ProductFilter {
             spec = spec.and(searchPriceProduct(priceProduct));
         }
 
+        if (minPrice != null || maxPrice != null) {
+            spec = spec.and(searchPriceBetween(minPrice, maxPrice));
+        }
+
         if (!ObjectUtils.isEmpty(category)) {
             spec = spec.and(searchCategoryName(category));
         }
@@ -41,5 +53,20 @@ public class ProductFilter {
         return spec;
     }
 
+    /**
+     * Cópia do filtro com textos aparados e campos vazios como null, usada como chave de cache.
+     * Uma faixa de preço invertida (minPrice maior que maxPrice) é rejeitada.
+     */
+    public ProductFilter normalized() {
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new IllegalArgumentException(Messages.BAD_REQUEST);
+        }
+        return new ProductFilter(normalize(nameProduct), normalize(descriptionProduct), priceProduct, normalize(category),
+                minPrice, maxPrice);
+    }
+
+    private static String normalize(String value) {
+        return ObjectUtils.isEmpty(value) || value.isBlank() ? null : value.trim();
+    }
 
 }
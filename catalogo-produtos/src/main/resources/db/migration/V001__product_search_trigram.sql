@@ -0,0 +1,11 @@
+-- Busca por substring (LIKE '%x%') sem diferenciar maiúsculas, atendida por índices GIN de trigramas
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm
+    ON tb_product USING gin (lower(name_product) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_product_description_trgm
+    ON tb_product USING gin (lower(description_product) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_category_name_trgm
+    ON tb_category USING gin (lower(name_category) gin_trgm_ops);
@@ -0,0 +1,13 @@
+-- Busca textual ranqueada: tsvector com nome e descrição do produto e nome da categoria
+ALTER TABLE tb_product ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE INDEX IF NOT EXISTS idx_product_search_vector
+    ON tb_product USING gin (search_vector);
+
+UPDATE tb_product p
+   SET search_vector = setweight(to_tsvector('portuguese', coalesce(p.name_product, '')), 'A')
+                    || setweight(to_tsvector('portuguese', coalesce(p.description_product, '')), 'B')
+                    || setweight(to_tsvector('portuguese', coalesce(c.name_category, '')), 'C')
+  FROM tb_category c
+ WHERE c.uuid_category = p.category_uuid
+   AND p.search_vector IS NULL;
@@ -0,0 +1,4 @@
+-- Faixa de preço (minPrice/maxPrice) e ordenação por preço com desempate por uuid_product,
+-- na mesma ordem usada pela paginação e pelo cursor
+CREATE INDEX IF NOT EXISTS idx_product_price
+    ON tb_product (price_product, uuid_product);
@@ -0,0 +1,3 @@
+-- Busca do despachante de e-mails: mensagens PENDING com next_attempt_at vencido, em ordem de envio
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due
+    ON tb_email_outbox (status, next_attempt_at);
@@ -0,0 +1,3 @@
+-- Progresso de um envio em lote: contagem das mensagens do lote por situação
+CREATE INDEX IF NOT EXISTS idx_email_outbox_batch
+    ON tb_email_outbox (batch_id);
@@ -33,7 +33,6 @@ import org.springframework.test.web.servlet.ResultActions;
 
 import java.time.LocalDate;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
@@ -94,7 +93,7 @@ class CategoryControllerTest {
 
         listCategory = List.of(c1,c2);
         listCategoryDTO = List.of(mapper.parseToDto(c1), mapper.parseToDto(c2));
-        pageable =  PageRequest.of(0, 10, Sort.Direction.ASC, "uuidProduct");
+        pageable =  PageRequest.of(0, 10, Sort.Direction.ASC, "uuidCategory");
         pageOfCategorys = new PageImpl<>(listCategory, pageable, listCategory.size());
     }
 
@@ -103,8 +102,8 @@ class CategoryControllerTest {
     @WithMockUser(roles = {"ADMIN", "USER"})
     void returnPageListWithCategorySuccessfully() throws JsonProcessingException, Exception {
 
-        when(service.findAll(any(Pageable.class))).thenReturn(listCategory);
-        Page<CategoryDTO> expectedPageDto = mapper.toPageDTO(listCategoryDTO, pageable);
+        when(service.findAll(any(Pageable.class))).thenReturn(pageOfCategorys);
+        Page<CategoryDTO> expectedPageDto = mapper.toPageDTO(pageOfCategorys);
 
         // When / Act
         ResultActions response = mockMvc.perform(get("/category")
@@ -164,12 +163,7 @@ class CategoryControllerTest {
     @WithMockUser(roles = "USER")
     @Test
     void testGerarRelatorioPdf() throws Exception {
-        // Mock do serviço para retornar dados
-        Category mockCategory = new Category();
-        mockCategory.setUuidCategory(c1.getUuidCategory());
-        mockCategory.setNameCategory("Category Teste");
-        List<Category> mockData = Collections.singletonList(mockCategory);
-        when(service.findAll()).thenReturn(mockData);
+        // O relatório agrupa no banco as categorias salvas no setUp
 
         // Simular a requisição para PDF (padrão)
         MvcResult result = mockMvc.perform(get("/category/report"))
@@ -184,11 +178,7 @@ class CategoryControllerTest {
     @WithMockUser(roles = "USER")
     @Test
     void testGerarRelatorioXlsx() throws Exception {
-        Category mockCategory = new Category();
-        mockCategory.setUuidCategory(c1.getUuidCategory());
-        mockCategory.setNameCategory("Category Teste");
-        List<Category> mockData = Collections.singletonList(mockCategory);
-        when(service.findAll()).thenReturn(mockData);
+        // O relatório agrupa no banco as categorias salvas no setUp
 
         mockMvc.perform(get("/category/report").param("fileType", "xlsx"))
                 .andExpect(status().isOk())
@@ -199,12 +189,7 @@ class CategoryControllerTest {
     @WithMockUser(roles = "USER")
     @Test
     void testGerarRelatorioCsv() throws Exception {
-
-        Category mockCategory = new Category();
-        mockCategory.setUuidCategory(c1.getUuidCategory());
-        mockCategory.setNameCategory("Category Teste");
-        List<Category> mockData = Collections.singletonList(mockCategory);
-        when(service.findAll()).thenReturn(mockData);
+        // O relatório agrupa no banco as categorias salvas no setUp
 
         // Simular a requisição para CSV
         mockMvc.perform(get("/category/report").param("fileType", "csv"))
@@ -7,11 +7,16 @@ import br.com.bgrbarbosa.product_catalog.model.Product;
 import br.com.bgrbarbosa.product_catalog.model.Role;
 import br.com.bgrbarbosa.product_catalog.model.User;
 import br.com.bgrbarbosa.product_catalog.model.dto.CategoryDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.EmailBatchDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.EmailBatchRequestDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.EmailMessageDTO;
 import br.com.bgrbarbosa.product_catalog.model.dto.ProductDTO;
 import br.com.bgrbarbosa.product_catalog.model.dto.UserRequestDTO;
 import br.com.bgrbarbosa.product_catalog.repository.CategoryRepository;
 import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.service.EmailOutboxService;
 import br.com.bgrbarbosa.product_catalog.service.EmailService;
+import br.com.bgrbarbosa.product_catalog.service.exception.IllegalArgumentException;
 import br.com.bgrbarbosa.product_catalog.service.exception.ResourceNotFoundException;
 import br.com.bgrbarbosa.product_catalog.service.impl.ProductServiceImpl;
 import br.com.bgrbarbosa.product_catalog.service.impl.UserServiceImpl;
@@ -28,19 +33,21 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.*;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -79,6 +86,9 @@ class ProductControllerTest {
     @MockBean
     private EmailService emailService;
 
+    @MockBean
+    private EmailOutboxService emailOutbox;
+
     private Product p1;
     private Product p2;
     private List<Product> listProduct;
@@ -112,8 +122,8 @@ class ProductControllerTest {
     @WithMockUser(roles = {"ADMIN", "USER"})
     void returnPageListWithProductSuccessfully() throws JsonProcessingException, Exception {
 
-        when(service.findAll(any(Pageable.class), any(ProductFilter.class))).thenReturn(listProduct);
-        Page<ProductDTO> expectedPageDto = mapper.toPageDTO(listProductDTO, pageable);
+        when(service.findAll(any(Pageable.class), any(ProductFilter.class))).thenReturn(pageOfProducts);
+        Page<ProductDTO> expectedPageDto = mapper.toPageDTO(pageOfProducts);
 
         // When / Act
         ResultActions response = mockMvc.perform(get("/product")
@@ -189,12 +199,7 @@ class ProductControllerTest {
     @WithMockUser(roles = "USER")
     @Test
     void testGerarRelatorioPdf() throws Exception {
-        // Mock do serviço para retornar dados
-        Product mockProduct = new Product();
-        mockProduct.setUuidProduct(p1.getUuidProduct());
-        mockProduct.setNameProduct("Produto Teste");
-        List<Product> mockData = Collections.singletonList(mockProduct);
-        when(service.findAll(new ProductFilter())).thenReturn(mockData);
+        // O relatório lê do banco os produtos salvos no setUp
 
         // Simular a requisição para PDF (padrão)
         MvcResult result = mockMvc.perform(get("/product/report"))
@@ -210,12 +215,7 @@ class ProductControllerTest {
     @WithMockUser(roles = "USER")
     @Test
     void testGerarRelatorioXlsx() throws Exception {
-        // Mock do serviço
-        Product mockProduct = new Product();
-        mockProduct.setUuidProduct(p1.getUuidProduct());
-        mockProduct.setNameProduct("Produto Teste");
-        List<Product> mockData = Collections.singletonList(mockProduct);
-        when(service.findAll(new ProductFilter())).thenReturn(mockData);
+        // O relatório lê do banco os produtos salvos no setUp
 
         // Simular a requisição para XLSX
         mockMvc.perform(get("/product/report").param("fileType", "xlsx"))
@@ -227,12 +227,7 @@ class ProductControllerTest {
     @WithMockUser(roles = "USER")
     @Test
     void testGerarRelatorioCsv() throws Exception {
-        // Mock do serviço
-        Product mockProduct = new Product();
-        mockProduct.setUuidProduct(p1.getUuidProduct());
-        mockProduct.setNameProduct("Produto Teste");
-        List<Product> mockData = Collections.singletonList(mockProduct);
-        when(service.findAll(new ProductFilter())).thenReturn(mockData);
+        // O relatório lê do banco os produtos salvos no setUp
 
         // Simular a requisição para CSV
         mockMvc.perform(get("/product/report").param("fileType", "csv"))
@@ -265,6 +260,34 @@ class ProductControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Should insert a batch and report the invalid items individually")
+    @WithMockUser(roles = {"ADMIN"})
+    void insertBatchReportsEachItem() throws Exception {
+
+        UUID created = UUID.randomUUID();
+        when(service.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            products.forEach(product -> product.setUuidProduct(created));
+            return Arrays.asList(new String[products.size()]);
+        });
+        List<ProductDTO> batch = List.of(
+                new ProductDTO(null, "Cabo HDMI", "Cabo HDMI 2 metros", 35.0, "http://upload456", null, null, category),
+                new ProductDTO(null, "", "Cabo sem nome", 10.0, "http://upload789", null, null, category));
+
+        mockMvc.perform(post("/product/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.items[0].status", is("CREATED")))
+                .andExpect(jsonPath("$.items[0].uuidProduct", is(created.toString())))
+                .andExpect(jsonPath("$.items[1].status", is("FAILED")))
+                .andExpect(jsonPath("$.items[1].errors", hasSize(2)));
+        verify(service, times(1)).insertAll(argThat(products -> products.size() == 1));
+    }
+
     @Test
     @DisplayName("Should return a \"Bad Request\" for invalid product data when inserting.")
     @WithMockUser(roles = {"ADMIN"})
@@ -291,31 +314,112 @@ class ProductControllerTest {
     }
 
     @Test
-    @DisplayName("Should return a success message when the email is sent.")
-    @WithMockUser(roles = "USER")
-    void enviarEmailComSucesso() throws Exception {
+    @DisplayName("Should accept the email and return the outbox message id")
+    @WithMockUser(roles = "ADMIN")
+    void enviarEmailAgendado() throws Exception {
 
         String destinoEmail = "teste@exemplo.com";
-        doNothing().when(emailService).sendingProductListByEmail(destinoEmail);
+        UUID id = UUID.randomUUID();
+        when(emailOutbox.enqueueProductList(destinoEmail)).thenReturn(
+                new EmailMessageDTO(id, destinoEmail, "PENDING", 0, Instant.now(), Instant.now(), null, null));
 
         mockMvc.perform(post("/product/enviar-email")
                         .param("destination", destinoEmail))
-                .andExpect(status().isOk())
-                .andExpect(content().string("E-mail enviado com sucesso!"));
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", endsWith("/product/enviar-email/" + id)))
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+        verify(emailService, never()).sendingProductListByEmail(anyString());
     }
 
     @Test
-    @DisplayName("Should return error message when email sending fails")
-    @WithMockUser(roles = "USER")
-    void enviarEmailComFalha() throws Exception {
+    @DisplayName("Should accept a recipient list as one batch")
+    @WithMockUser(roles = "ADMIN")
+    void enviarEmailLote() throws Exception {
+
+        List<String> destinos = List.of("a@exemplo.com", "b@exemplo.com");
+        UUID id = UUID.randomUUID();
+        when(emailOutbox.enqueueProductList(destinos)).thenReturn(new EmailBatchDTO(id, 2, 2, 0, 0, 0, false));
+
+        mockMvc.perform(post("/product/enviar-email/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EmailBatchRequestDTO(destinos))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", endsWith("/product/enviar-email/lote/" + id)))
+                .andExpect(jsonPath("$.total").value(2));
+    }
+
+    @Test
+    @DisplayName("Should read the recipients of a batch from an uploaded file")
+    @WithMockUser(roles = "ADMIN")
+    void enviarEmailLoteArquivo() throws Exception {
+
+        UUID id = UUID.randomUUID();
+        when(emailOutbox.enqueueProductList(List.of("a@exemplo.com", "b@exemplo.com")))
+                .thenReturn(new EmailBatchDTO(id, 2, 2, 0, 0, 0, false));
+        MockMultipartFile file = new MockMultipartFile("file", "clientes.txt", MediaType.TEXT_PLAIN_VALUE,
+                "a@exemplo.com\nb@exemplo.com\n".getBytes());
 
-        String destinoEmail = "teste_falha@exemplo.com";
-        doThrow(new RuntimeException("Simulando erro de envio")).when(emailService).sendingProductListByEmail(destinoEmail);
+        mockMvc.perform(multipart("/product/enviar-email/lote").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(id.toString()));
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request when the recipient is not a valid email address")
+    @WithMockUser(roles = "ADMIN")
+    void enviarEmailDestinoInvalido() throws Exception {
+
+        when(emailOutbox.enqueueProductList("invalido"))
+                .thenThrow(new IllegalArgumentException(Messages.INVALID_EMAIL + ": invalido"));
 
         mockMvc.perform(post("/product/enviar-email")
-                        .param("destination", destinoEmail))
+                        .param("destination", "invalido"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return 400 Bad Request when a batch exceeds the recipient limit")
+    @WithMockUser(roles = "ADMIN")
+    void enviarEmailLoteAcimaDoLimite() throws Exception {
+
+        List<String> destinos = List.of("a@exemplo.com", "b@exemplo.com");
+        when(emailOutbox.enqueueProductList(destinos))
+                .thenThrow(new IllegalArgumentException(Messages.EMAIL_BATCH_TOO_LARGE + 1));
+
+        mockMvc.perform(post("/product/enviar-email/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EmailBatchRequestDTO(destinos))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return the progress of an email batch")
+    @WithMockUser(roles = "ADMIN")
+    void consultarEnvioEmailLote() throws Exception {
+
+        UUID id = UUID.randomUUID();
+        when(emailOutbox.findBatch(id)).thenReturn(new EmailBatchDTO(id, 10, 2, 3, 4, 1, false));
+
+        mockMvc.perform(get("/product/enviar-email/lote/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sent").value(4))
+                .andExpect(jsonPath("$.finished").value(false));
+    }
+
+    @Test
+    @DisplayName("Should return the delivery status of a queued email")
+    @WithMockUser(roles = "ADMIN")
+    void consultarEnvioEmail() throws Exception {
+
+        UUID id = UUID.randomUUID();
+        when(emailOutbox.find(id)).thenReturn(
+                new EmailMessageDTO(id, "teste@exemplo.com", "DEAD", 5, Instant.now(), Instant.now(), null, "Connection refused"));
+
+        mockMvc.perform(get("/product/enviar-email/{id}", id))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Erro ao enviar e-mail: Simulando erro de envio"));
+                .andExpect(jsonPath("$.status").value("DEAD"))
+                .andExpect(jsonPath("$.attempts").value(5));
     }
 
     @Test
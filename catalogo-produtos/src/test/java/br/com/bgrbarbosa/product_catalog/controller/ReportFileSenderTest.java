@@ -0,0 +1,108 @@
+package br.com.bgrbarbosa.product_catalog.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportFileSenderTest {
+
+    private static final String ETAG = "\"abc\"";
+
+    @TempDir
+    Path directory;
+
+    private final ReportFileSender sender = new ReportFileSender();
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = Files.writeString(directory.resolve("relatorio.pdf"), "0123456789");
+    }
+
+    @Test
+    @DisplayName("Must send the whole file with the ETag")
+    void sendWholeFile() throws Exception {
+        MockHttpServletResponse response = send(new MockHttpServletRequest());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals(ETAG, response.getHeader(HttpHeaders.ETAG));
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+    }
+
+    @Test
+    @DisplayName("Must answer 304 when the ETag matches If-None-Match")
+    void notModified() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ETAG);
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("Must send only the requested range with 206")
+    void partialContent() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=4-");
+        request.addHeader(HttpHeaders.IF_RANGE, ETAG);
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("456789", response.getContentAsString());
+        assertEquals("bytes 4-9/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(6, response.getContentLengthLong());
+    }
+
+    @Test
+    @DisplayName("Must send the whole file when If-Range does not match")
+    void ifRangeMismatch() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=4-");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"old\"");
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Must answer 416 when the range starts after the end of the file")
+    void unsatisfiableRange() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    @DisplayName("Must parse suffix ranges and ignore multiple ranges")
+    void parseRange() {
+        assertArrayEquals(new long[] { 7, 9 }, ReportFileSender.parseRange("bytes=-3", 10));
+        assertArrayEquals(new long[] { 2, 9 }, ReportFileSender.parseRange("bytes=2-50", 10));
+        assertNull(ReportFileSender.parseRange("bytes=0-1,4-5", 10));
+        assertNull(ReportFileSender.parseRange("items=0-1", 10));
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        sender.send(request, response, file, Files.size(file), "application/pdf", "relatorio.pdf", ETAG);
+        return response;
+    }
+}
@@ -23,6 +23,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
@@ -119,7 +120,7 @@ class UserControllerTest {
     void returnListWithUserSuccessfully() throws JsonProcessingException, Exception {
 
         // Given / Arrange
-        when(service.findAll(pageable)).thenReturn(this.userList);
+        when(service.findAll(pageable)).thenReturn(new PageImpl<>(this.userList, pageable, this.userList.size()));
 
         // When / Act
         ResultActions response = mockMvc.perform(get("/user")
@@ -0,0 +1,89 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogPdfCacheTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private CatalogPdfCache cache;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CatalogPdfWriter writer = new CatalogPdfWriter(productRepository);
+        ReflectionTestUtils.setField(writer, "flushRows", 2);
+        cache = new CatalogPdfCache(writer, catalogVersion, registry);
+        ReflectionTestUtils.setField(cache, "directory", directory);
+        cache.start();
+        when(productRepository.streamAll(any(), any(), anyInt())).thenAnswer(invocation -> IntStream.range(0, 5)
+                .mapToObj(i -> new Product(UUID.randomUUID(), "Cabo " + i, "Cabo", 20.0 + i, null, LocalDate.now(), null, null)));
+    }
+
+    @Test
+    @DisplayName("Must render the catalog PDF once while the catalog does not change")
+    void reuseSameVersion() throws Exception {
+        CatalogPdfCache.CatalogPdf first = cache.acquire();
+        CatalogPdfCache.CatalogPdf second = cache.acquire();
+
+        assertSame(first, second);
+        assertEquals(Files.size(first.file()), first.size());
+        assertEquals("%PDF", new String(Files.readAllBytes(first.file()), 0, 4, StandardCharsets.ISO_8859_1));
+        verify(productRepository, times(1)).streamAll(any(), any(), anyInt());
+        assertEquals(1.0, registry.get("catalog.email.pdf.cache").tag("result", "hit").counter().count());
+        assertEquals(1.0, registry.get("catalog.email.pdf.cache").tag("result", "miss").counter().count());
+        assertEquals(1, registry.get("catalog.email.pdf.render").timer().count());
+    }
+
+    @Test
+    @DisplayName("Must render again after a catalog change")
+    void renderNewVersion() {
+        CatalogPdfCache.CatalogPdf first = cache.acquire();
+        catalogVersion.onCatalogChanged(CatalogChangedEvent.product(UUID.randomUUID()));
+
+        CatalogPdfCache.CatalogPdf second = cache.acquire();
+        second.close();
+
+        assertNotSame(first, second);
+        assertEquals(catalogVersion.current(), second.version());
+        verify(productRepository, times(2)).streamAll(any(), any(), anyInt());
+        assertTrue(Files.exists(second.file()));
+
+        catalogVersion.onCatalogChanged(CatalogChangedEvent.product(UUID.randomUUID()));
+        cache.acquire().close();
+
+        // Versão substituída e sem envios é removida; a que ainda está anexada fica até o close
+        assertFalse(Files.exists(second.file()));
+        assertTrue(Files.exists(first.file()));
+
+        first.close();
+
+        assertFalse(Files.exists(first.file()));
+    }
+}
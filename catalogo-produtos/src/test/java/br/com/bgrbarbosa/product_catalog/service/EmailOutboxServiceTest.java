@@ -0,0 +1,198 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.EmailOutbox;
+import br.com.bgrbarbosa.product_catalog.model.dto.EmailBatchDTO;
+import br.com.bgrbarbosa.product_catalog.repository.EmailOutboxRepository;
+import br.com.bgrbarbosa.product_catalog.service.exception.IllegalArgumentException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxServiceTest {
+
+    @Mock
+    private EmailOutboxRepository repository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private EmailOutboxService outbox;
+
+    @BeforeEach
+    void setUp() {
+        outbox = new EmailOutboxService(repository, emailService, eventPublisher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outbox.shutdown();
+    }
+
+    @Test
+    @DisplayName("Must mark the message as sent after a successful delivery")
+    void sendSuccess() {
+        EmailOutbox message = message(0);
+        when(repository.findAllById(List.of(message.getUuidEmail()))).thenReturn(List.of(message));
+        when(emailService.sendingProductListByEmail(List.of("cliente@exemplo.com"))).thenReturn(Arrays.asList((Exception) null));
+
+        outbox.send(List.of(message.getUuidEmail()));
+
+        verify(repository).saveAll(List.of(message));
+        assertEquals(EmailOutbox.Status.SENT, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertNotNull(message.getDtSent());
+    }
+
+    @Test
+    @DisplayName("Must reschedule a failed delivery with backoff")
+    void sendRetry() {
+        EmailOutbox message = message(1);
+        when(repository.findAllById(List.of(message.getUuidEmail()))).thenReturn(List.of(message));
+        when(emailService.sendingProductListByEmail(anyList())).thenThrow(new RuntimeException("Connection refused"));
+
+        Instant before = Instant.now();
+        outbox.send(List.of(message.getUuidEmail()));
+
+        assertEquals(EmailOutbox.Status.PENDING, message.getStatus());
+        assertEquals(2, message.getAttempts());
+        assertEquals("Connection refused", message.getLastError());
+        assertFalse(message.getNextAttemptAt().isBefore(before.plus(Duration.ofSeconds(60))));
+    }
+
+    @Test
+    @DisplayName("Must move the message to dead letter after the last attempt")
+    void sendDead() {
+        EmailOutbox message = message(4);
+        when(repository.findAllById(List.of(message.getUuidEmail()))).thenReturn(List.of(message));
+        when(emailService.sendingProductListByEmail(anyList()))
+                .thenReturn(List.of(new RuntimeException("Mailbox unavailable")));
+
+        outbox.send(List.of(message.getUuidEmail()));
+
+        assertEquals(EmailOutbox.Status.DEAD, message.getStatus());
+        assertEquals(5, message.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Must record the outcome of each message sent over the same connection")
+    void sendGroup() {
+        EmailOutbox delivered = message(0);
+        EmailOutbox rejected = message(0);
+        rejected.setDestination("inexistente@exemplo.com");
+        List<UUID> ids = List.of(delivered.getUuidEmail(), rejected.getUuidEmail());
+        when(repository.findAllById(ids)).thenReturn(List.of(delivered, rejected));
+        when(emailService.sendingProductListByEmail(List.of("cliente@exemplo.com", "inexistente@exemplo.com")))
+                .thenReturn(Arrays.asList(null, new RuntimeException("550 User unknown")));
+
+        outbox.send(ids);
+
+        assertEquals(EmailOutbox.Status.SENT, delivered.getStatus());
+        assertEquals(EmailOutbox.Status.PENDING, rejected.getStatus());
+        assertEquals("550 User unknown", rejected.getLastError());
+        verify(emailService, never()).sendingProductListByEmail(anyString());
+    }
+
+    @Test
+    @DisplayName("Must queue one message per distinct recipient in the same batch")
+    void enqueueBatch() {
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<EmailOutbox> messages = invocation.getArgument(0);
+            messages.forEach(message -> message.setUuidEmail(UUID.randomUUID()));
+            return messages;
+        });
+
+        EmailBatchDTO batch = outbox.enqueueProductList(List.of("a@exemplo.com", " b@exemplo.com ", "a@exemplo.com"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EmailOutbox>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(captor.capture());
+        assertEquals(List.of("a@exemplo.com", "b@exemplo.com"),
+                captor.getValue().stream().map(EmailOutbox::getDestination).toList());
+        assertTrue(captor.getValue().stream().allMatch(message -> batch.id().equals(message.getBatchId())));
+        assertEquals(2, batch.total());
+        verify(eventPublisher).publishEvent(any(EmailQueuedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Must reject a batch with an invalid address")
+    void enqueueBatchInvalidAddress() {
+        assertThrows(IllegalArgumentException.class,
+                () -> outbox.enqueueProductList(List.of("a@exemplo.com", "sem-arroba")));
+        verify(repository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Must read recipients separated by lines, commas and semicolons")
+    void readRecipients() throws Exception {
+        String file = "# clientes\na@exemplo.com\n\nb@exemplo.com, c@exemplo.com;d@exemplo.com\n";
+
+        List<String> recipients = EmailOutboxService.readRecipients(
+                new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(List.of("a@exemplo.com", "b@exemplo.com", "c@exemplo.com", "d@exemplo.com"), recipients);
+    }
+
+    @Test
+    @DisplayName("Must double the backoff up to the configured maximum")
+    void backoff() {
+        assertEquals(Duration.ofSeconds(30), outbox.backoff(1));
+        assertEquals(Duration.ofSeconds(120), outbox.backoff(3));
+        assertEquals(Duration.ofMinutes(30), outbox.backoff(12));
+    }
+
+    @Test
+    @DisplayName("Must skip domains at their connection limit when looking for due messages")
+    void pollSkipsSaturatedDomains() {
+        ReflectionTestUtils.setField(outbox, "pollInterval", Duration.ofHours(1));
+        outbox.start();
+        @SuppressWarnings("unchecked")
+        Map<String, Semaphore> domainPermits = (Map<String, Semaphore>) ReflectionTestUtils.getField(outbox, "domainPermits");
+        domainPermits.put("grande.com", new Semaphore(0));
+        EmailOutbox other = message(0);
+        other.setDestination("cliente@outro.com");
+        other.setStatus(EmailOutbox.Status.PENDING);
+        when(repository.findDueExcludingDomains(eq(EmailOutbox.Status.PENDING), any(), eq(Set.of("grande.com")), any()))
+                .thenReturn(List.of(other), List.of());
+        when(repository.claim(eq(other.getUuidEmail()), any())).thenReturn(1);
+
+        outbox.poll();
+
+        verify(repository).claim(eq(other.getUuidEmail()), any());
+        verify(repository, never()).findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(any(), any(), any());
+    }
+
+    private static EmailOutbox message(int attempts) {
+        EmailOutbox message = new EmailOutbox();
+        message.setUuidEmail(UUID.randomUUID());
+        message.setDestination("cliente@exemplo.com");
+        message.setStatus(EmailOutbox.Status.SENDING);
+        message.setAttempts(attempts);
+        message.setNextAttemptAt(Instant.now());
+        return message;
+    }
+}
@@ -0,0 +1,58 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import net.sf.jasperreports.engine.JRPrintText;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.base.JRBasePrintPage;
+import net.sf.jasperreports.engine.base.JRBasePrintText;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelProductReportFillerTest {
+
+    @Test
+    @DisplayName("Must number the pages of all chunks as a single document")
+    void renumberPages() {
+        JasperPrint first = chunk(2);
+        JasperPrint second = chunk(3);
+
+        ParallelProductReportFiller.renumberPages(List.of(first, second));
+
+        assertEquals("Page 1", text(first, 0, ParallelProductReportFiller.PAGE_NUMBER_KEY));
+        assertEquals("Page 3", text(second, 0, ParallelProductReportFiller.PAGE_NUMBER_KEY));
+        assertEquals("Page 5", text(second, 2, ParallelProductReportFiller.PAGE_NUMBER_KEY));
+        assertEquals(" of 5", text(first, 1, ParallelProductReportFiller.PAGE_TOTAL_KEY));
+        assertEquals(" of 5", text(second, 2, ParallelProductReportFiller.PAGE_TOTAL_KEY));
+        assertEquals("Cabo", text(second, 1, "detail"));
+    }
+
+    private static JasperPrint chunk(int pages) {
+        JasperPrint print = new JasperPrint();
+        for (int i = 1; i <= pages; i++) {
+            JRBasePrintPage page = new JRBasePrintPage();
+            page.addElement(textElement(ParallelProductReportFiller.PAGE_NUMBER_KEY, "Page " + i));
+            page.addElement(textElement(ParallelProductReportFiller.PAGE_TOTAL_KEY, " of " + pages));
+            page.addElement(textElement("detail", "Cabo"));
+            print.addPage(page);
+        }
+        return print;
+    }
+
+    private static JRBasePrintText textElement(String key, String value) {
+        JRBasePrintText text = new JRBasePrintText(null);
+        text.setKey(key);
+        text.setText(value);
+        return text;
+    }
+
+    private static String text(JasperPrint print, int page, String key) {
+        return print.getPages().get(page).getElements().stream()
+                .filter(element -> key.equals(element.getKey()))
+                .map(element -> ((JRPrintText) element).getFullText())
+                .findFirst()
+                .orElseThrow();
+    }
+}
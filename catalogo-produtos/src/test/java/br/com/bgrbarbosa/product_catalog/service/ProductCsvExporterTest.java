@@ -0,0 +1,51 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCsvExporterTest {
+
+    @Mock
+    private ProductRepository repository;
+
+    @InjectMocks
+    private ProductCsvExporter exporter;
+
+    @Test
+    @DisplayName("Must write a header and one escaped row per product")
+    void exportWritesEscapedRows() throws IOException {
+        UUID uuid = UUID.fromString("6f1c1f9e-0000-4000-8000-000000000001");
+        Product product = new Product();
+        product.setUuidProduct(uuid);
+        product.setNameProduct("Cabo \"V8\", 1m");
+        product.setPriceProduct(20.5);
+        when(repository.streamAll(any(Specification.class), eq(Sort.unsorted()), anyInt())).thenReturn(Stream.of(product));
+
+        StringWriter writer = new StringWriter();
+        long rows = exporter.export(new ProductFilter(), writer);
+
+        assertEquals(1, rows);
+        assertEquals("Código,Nome do Produto,Preço\r\n" + uuid + ",\"Cabo \"\"V8\"\", 1m\",20.5\r\n", writer.toString());
+    }
+}
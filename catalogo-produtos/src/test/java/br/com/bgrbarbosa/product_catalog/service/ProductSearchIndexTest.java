@@ -0,0 +1,122 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductIndexStatsDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductTextDTO;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductSearchIndex index;
+
+    private ProductTextDTO cabo;
+    private ProductTextDTO caboV8;
+    private ProductTextDTO mouse;
+
+    PageRequest pageable;
+
+    @BeforeEach
+    void setUp() {
+        cabo = new ProductTextDTO(UUID.randomUUID(), "Cabo de Rede par trançado", "Cabo de rede categoria 5e Furukawa", 200.0, "Cabos");
+        caboV8 = new ProductTextDTO(UUID.randomUUID(), "Cabo de celular V8", "Cabo de celular V8", 20.0, "Cabos");
+        mouse = new ProductTextDTO(UUID.randomUUID(), "Mouse sem fio", "Mouse óptico sem fio", 80.0, "Periféricos");
+        pageable = PageRequest.of(0, 10, Sort.by(Sort.Order.asc("priceProduct"), Sort.Order.asc("uuidProduct")));
+
+        index = new ProductSearchIndex(repository, transactionManager);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        when(repository.streamAllText()).thenReturn(Stream.of(cabo, caboV8, mouse));
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("Must find products whose name contains the term ignoring case")
+    void searchByNameIgnoringCase() {
+        Optional<ProductSearchIndex.Hits> hits = index.search(new ProductFilter("CABO", null, null, null), pageable);
+
+        assertTrue(hits.isPresent());
+        assertEquals(2, hits.get().total());
+        assertEquals(List.of(caboV8.uuidProduct(), cabo.uuidProduct()), hits.get().ids());
+    }
+
+    @Test
+    @DisplayName("Must combine text, category and price predicates")
+    void searchCombiningPredicates() {
+        Optional<ProductSearchIndex.Hits> hits = index.search(new ProductFilter(null, "rede", 200.0, "cab"), pageable);
+
+        assertTrue(hits.isPresent());
+        assertEquals(List.of(cabo.uuidProduct()), hits.get().ids());
+    }
+
+    @Test
+    @DisplayName("Must filter by an inclusive price range")
+    void searchByPriceRange() {
+        Optional<ProductSearchIndex.Hits> hits = index.search(new ProductFilter("cabo", null, null, null, 20.0, 199.99), pageable);
+
+        assertTrue(hits.isPresent());
+        assertEquals(List.of(caboV8.uuidProduct()), hits.get().ids());
+    }
+
+    @Test
+    @DisplayName("Must fall back to the database when there is no text term of at least three characters")
+    void searchWithoutTextTermIsNotAnswered() {
+        assertTrue(index.search(new ProductFilter("ca", null, null, "Cabos"), pageable).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Must reflect updates and deletions made after the build")
+    void refreshAndRemove() {
+        ProductTextDTO renamed = new ProductTextDTO(mouse.uuidProduct(), "Mouse com cabo USB", "Mouse óptico", 80.0, "Periféricos");
+        when(repository.findTextByIds(List.of(mouse.uuidProduct()))).thenReturn(List.of(renamed));
+        when(repository.findTextByIds(List.of(cabo.uuidProduct()))).thenReturn(List.of());
+
+        index.refresh(mouse.uuidProduct());
+        index.remove(cabo.uuidProduct());
+
+        Optional<ProductSearchIndex.Hits> hits = index.search(new ProductFilter("cabo", null, null, null), pageable);
+        assertEquals(List.of(caboV8.uuidProduct(), mouse.uuidProduct()), hits.get().ids());
+
+        ProductIndexStatsDTO stats = index.stats();
+        assertEquals(2, stats.documents());
+        assertEquals(2, stats.deletedDocuments());
+        assertTrue(stats.estimatedBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Must reload a batch of changed products with a single query")
+    void refreshBatch() {
+        ProductTextDTO renamed = new ProductTextDTO(mouse.uuidProduct(), "Mouse com cabo USB", "Mouse óptico", 80.0, "Periféricos");
+        List<UUID> ids = List.of(mouse.uuidProduct(), cabo.uuidProduct());
+        when(repository.findTextByIds(ids)).thenReturn(List.of(renamed));
+
+        index.refresh(ids);
+
+        verify(repository, times(1)).findTextByIds(ids);
+        Optional<ProductSearchIndex.Hits> hits = index.search(new ProductFilter("cabo", null, null, null), pageable);
+        assertEquals(List.of(caboV8.uuidProduct(), mouse.uuidProduct()), hits.get().ids());
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductTextDTO;
+import br.com.bgrbarbosa.product_catalog.model.dto.SuggestionDTO;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSuggestIndexTest {
+
+    @Mock
+    private ProductRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSuggestIndex(repository, transactionManager);
+        when(repository.streamAllText()).thenReturn(Stream.of(
+                new ProductTextDTO(UUID.randomUUID(), "Cabo de Rede par trançado", "Cabo de rede", 200.0, "Cabos"),
+                new ProductTextDTO(UUID.randomUUID(), "Cabo de celular V8", "Cabo de celular V8", 20.0, "Cabos"),
+                new ProductTextDTO(UUID.randomUUID(), "Cabo de celular V8", "Cabo de celular V8", 25.0, "Cabos"),
+                new ProductTextDTO(UUID.randomUUID(), "Mouse sem fio", "Mouse óptico sem fio", 80.0, "Periféricos")));
+        index.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    @Test
+    @DisplayName("Must suggest product and category names by prefix, most frequent first")
+    void suggestByPrefix() {
+        List<SuggestionDTO> result = index.suggest("CAB", 10);
+
+        assertEquals(3, result.size());
+        assertEquals(new SuggestionDTO("Cabos", "category", 3), result.get(0));
+        assertEquals(new SuggestionDTO("Cabo de celular V8", "product", 2), result.get(1));
+        assertEquals(new SuggestionDTO("Cabo de Rede par trançado", "product", 1), result.get(2));
+    }
+
+    @Test
+    @DisplayName("Must suggest by a prefix longer than the precomputed ones")
+    void suggestByLongPrefix() {
+        List<SuggestionDTO> result = index.suggest("cabo de c", 10);
+
+        assertEquals(List.of(new SuggestionDTO("Cabo de celular V8", "product", 2)), result);
+    }
+
+    @Test
+    @DisplayName("Must find the most frequent name even when it sorts after many others")
+    void suggestAcrossLargeRange() {
+        when(repository.streamAllText()).thenReturn(Stream.concat(
+                IntStream.range(0, 12_000).mapToObj(i -> new ProductTextDTO(UUID.randomUUID(),
+                        "Cabo " + String.format("%05d", i), "Cabo", 20.0, null)),
+                Stream.generate(() -> new ProductTextDTO(UUID.randomUUID(), "Cabo USB-C", "Cabo", 30.0, null)).limit(3)));
+        index.rebuild();
+
+        SuggestionDTO expected = new SuggestionDTO("Cabo USB-C", "product", 3);
+        assertEquals(List.of(expected), index.suggest("c", 1));
+        assertEquals(List.of(expected), index.suggest("cabo", 1));
+        assertEquals(List.of(expected), index.suggest("cabo u", 1));
+    }
+
+    @Test
+    @DisplayName("Must respect the limit and ignore blank prefixes")
+    void suggestLimitAndBlank() {
+        assertEquals(1, index.suggest("c", 1).size());
+        assertTrue(index.suggest(" ", 10).isEmpty());
+        assertTrue(index.suggest("teclado", 10).isEmpty());
+    }
+}
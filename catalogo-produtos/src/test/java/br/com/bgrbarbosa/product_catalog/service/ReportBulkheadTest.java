@@ -0,0 +1,69 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.service.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportBulkheadTest {
+
+    private SimpleMeterRegistry registry;
+    private ReportBulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        bulkhead = new ReportBulkhead(registry);
+        ReflectionTestUtils.setField(bulkhead, "concurrency", 1);
+        ReflectionTestUtils.setField(bulkhead, "queueDepth", 1);
+        ReflectionTestUtils.setField(bulkhead, "maxWait", Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Must release the slot when the permit is closed")
+    void releaseOnClose() {
+        try (ReportBulkhead.Permit permit = bulkhead.acquire()) {
+            assertEquals(1.0, registry.get("catalog.report.renders").tag("state", "active").gauge().value());
+        }
+        assertEquals(0.0, registry.get("catalog.report.renders").tag("state", "active").gauge().value());
+
+        bulkhead.acquire().close();
+    }
+
+    @Test
+    @DisplayName("Must let one request wait and refuse the next with 503 when the queue is full")
+    void rejectWhenQueueFull() throws Exception {
+        ReportBulkhead.Permit running = bulkhead.acquire();
+        CompletableFuture<ReportBulkhead.Permit> queued = CompletableFuture.supplyAsync(bulkhead::acquire);
+        while (registry.get("catalog.report.renders").tag("state", "queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class, bulkhead::acquire);
+        assertTrue(e.getRetryAfterSeconds() > 0);
+        assertEquals(1.0, registry.get("catalog.report.renders.rejected").counter().count());
+
+        running.close();
+        queued.get(5, TimeUnit.SECONDS).close();
+    }
+
+    @Test
+    @DisplayName("Must refuse the request when the wait times out")
+    void rejectAfterMaxWait() {
+        ReflectionTestUtils.setField(bulkhead, "maxWait", Duration.ofMillis(10));
+        ReportBulkhead.Permit running = bulkhead.acquire();
+
+        assertThrows(ServiceUnavailableException.class, bulkhead::acquire);
+        assertEquals(0.0, registry.get("catalog.report.renders").tag("state", "queued").gauge().value());
+
+        running.close();
+    }
+}
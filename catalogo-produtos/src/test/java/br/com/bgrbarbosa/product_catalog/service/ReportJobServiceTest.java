@@ -0,0 +1,103 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.dto.ReportJobDTO;
+import br.com.bgrbarbosa.product_catalog.service.exception.ResourceNotFoundException;
+import br.com.bgrbarbosa.product_catalog.service.exception.ServiceUnavailableException;
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceTest {
+
+    @Mock
+    private ReportGenerator generator;
+
+    @TempDir
+    Path directory;
+
+    private ReportJobService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new ReportJobService(generator);
+        ReflectionTestUtils.setField(service, "directory", directory);
+        ReflectionTestUtils.setField(service, "concurrency", 1);
+        ReflectionTestUtils.setField(service, "queueDepth", 1);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Must generate the report in background and keep the file for download")
+    void submitAndDownload() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(3).write("pdf".getBytes());
+            return null;
+        }).when(generator).write(eq(ReportType.PRODUCT), eq(ReportFormat.PDF), any(ProductFilter.class), any(OutputStream.class));
+
+        ReportJobDTO job = service.submit(ReportType.PRODUCT, ReportFormat.PDF, new ProductFilter(), "user");
+        ReportJobDTO done = awaitFinished(job);
+
+        assertEquals("DONE", done.status());
+        assertEquals(3L, done.sizeBytes());
+        assertEquals("pdf", Files.readString(service.file(job.id(), "user").orElseThrow()));
+        assertThrows(ResourceNotFoundException.class, () -> service.find(job.id(), "other"));
+    }
+
+    @Test
+    @DisplayName("Must reject new jobs when the queue is full")
+    void rejectWhenQueueIsFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }).when(generator).write(any(), any(), any(), any());
+        try {
+            service.submit(ReportType.PRODUCT, ReportFormat.CSV, new ProductFilter(), "user");
+            // O primeiro job ocupa a única thread; o segundo fica na fila
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            service.submit(ReportType.PRODUCT, ReportFormat.CSV, new ProductFilter(), "user");
+            service.submit(ReportType.PRODUCT, ReportFormat.CSV, new ProductFilter(), "user");
+            fail("The third job should not fit in the executor");
+        } catch (ServiceUnavailableException e) {
+            assertTrue(e.getRetryAfterSeconds() > 0);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private ReportJobDTO awaitFinished(ReportJobDTO job) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ReportJobDTO current = service.find(job.id(), "user");
+            if (current.finishedAt() != null) {
+                return current;
+            }
+            Thread.sleep(20);
+        }
+        return fail("Report job did not finish");
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.service.ReportOutputCache.CachedReport;
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportOutputCacheTest {
+
+    @Mock
+    private ReportGenerator generator;
+
+    @TempDir
+    Path directory;
+
+    private CatalogVersion catalogVersion;
+    private ReportOutputCache cache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        catalogVersion = new CatalogVersion();
+        cache = new ReportOutputCache(generator, catalogVersion, new ReportBulkhead(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(cache, "directory", directory);
+        ReflectionTestUtils.setField(cache, "deleteDelay", Duration.ZERO);
+        cache.start();
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(3).write("pdf".getBytes());
+            return null;
+        }).when(generator).write(eq(ReportType.PRODUCT), eq(ReportFormat.PDF), any(ProductFilter.class), any(OutputStream.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    @DisplayName("Must reuse the generated file for the same normalized filter")
+    void reuseForSameFilter() throws Exception {
+        CachedReport first = cache.get(ReportType.PRODUCT, ReportFormat.PDF, new ProductFilter(" Cabo ", null, null, null));
+        CachedReport second = cache.get(ReportType.PRODUCT, ReportFormat.PDF, new ProductFilter("Cabo", null, null, null));
+
+        assertEquals(first.file(), second.file());
+        assertEquals(first.etag(), second.etag());
+        assertEquals("pdf", Files.readString(second.file()));
+        verify(generator, times(1)).write(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Must generate again after the catalog changes")
+    void regenerateAfterCatalogChange() throws Exception {
+        ProductFilter filter = new ProductFilter();
+        CachedReport first = cache.get(ReportType.PRODUCT, ReportFormat.PDF, filter);
+
+        catalogVersion.onCatalogChanged(CatalogChangedEvent.category(null));
+        CachedReport second = cache.get(ReportType.PRODUCT, ReportFormat.PDF, filter);
+
+        assertNotEquals(first.etag(), second.etag());
+        verify(generator, times(2)).write(any(), any(), any(), any());
+        // O arquivo antigo pode estar em download: só é apagado depois do delete-delay
+        assertTrue(Files.exists(first.file()));
+
+        cache.purgeRetired();
+
+        assertFalse(Files.exists(first.file()));
+        assertTrue(Files.exists(second.file()));
+    }
+}
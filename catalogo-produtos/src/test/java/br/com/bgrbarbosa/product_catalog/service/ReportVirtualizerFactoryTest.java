@@ -0,0 +1,43 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sf.jasperreports.engine.JRVirtualizer;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportVirtualizerFactoryTest {
+
+    private SimpleMeterRegistry registry;
+    private ReportVirtualizerFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        factory = new ReportVirtualizerFactory(registry);
+        ReflectionTestUtils.setField(factory, "rowThreshold", 100L);
+    }
+
+    @Test
+    @DisplayName("Must keep small reports in memory")
+    void smallReportIsNotVirtualized() {
+        assertNull(factory.forRows(100));
+        assertEquals(0, registry.get("catalog.report.virtualized.fills").counter().count());
+    }
+
+    @Test
+    @DisplayName("Must use a swap file virtualizer above the row threshold")
+    void largeReportIsVirtualized() {
+        JRVirtualizer virtualizer = factory.forRows(101);
+        try {
+            assertInstanceOf(JRSwapFileVirtualizer.class, virtualizer);
+            assertEquals(1, registry.get("catalog.report.virtualized.fills").counter().count());
+        } finally {
+            virtualizer.cleanup();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.Product;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.design.JRDesignField;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingJRDataSourceTest {
+
+    @Test
+    @DisplayName("Must read bean properties as the stream is consumed and close it at the end")
+    void readsStreamOnce() throws JRException {
+        Product cabo = new Product();
+        cabo.setNameProduct("Cabo de celular V8");
+        cabo.setPriceProduct(20.0);
+        Product mouse = new Product();
+        mouse.setNameProduct("Mouse sem fio");
+        AtomicBoolean closed = new AtomicBoolean();
+
+        JRDesignField name = new JRDesignField();
+        name.setName("nameProduct");
+        name.setValueClass(String.class);
+
+        StreamingJRDataSource<Product> dataSource =
+                new StreamingJRDataSource<>(Stream.of(cabo, mouse).onClose(() -> closed.set(true)));
+        try (dataSource) {
+            assertTrue(dataSource.next());
+            assertEquals("Cabo de celular V8", dataSource.getFieldValue(name));
+            assertTrue(dataSource.next());
+            assertEquals("Mouse sem fio", dataSource.getFieldValue(name));
+            assertFalse(dataSource.next());
+            assertThrows(JRException.class, dataSource::moveFirst);
+        }
+
+        assertEquals(2, dataSource.getRows());
+        assertTrue(closed.get());
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.bgrbarbosa.product_catalog.service;
+
+import br.com.bgrbarbosa.product_catalog.model.Category;
+import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.model.dto.CategoryReportRowDTO;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class XlsxReportExporterTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private XlsxReportExporter exporter;
+
+    @Test
+    @DisplayName("Must write the product sheet with a header and numeric prices")
+    void exportProducts() throws IOException {
+        Category category = new Category(UUID.randomUUID(), "Cabos", "Categoria de cabos", LocalDate.now(), null, List.of());
+        Product product = new Product(UUID.randomUUID(), "Cabo de celular V8", "Cabo V8", 20.0, null, LocalDate.now(), null, category);
+        when(productRepository.streamAll(any(Specification.class), eq(Sort.unsorted()), anyInt())).thenReturn(Stream.of(product));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long rows = exporter.exportProducts(new ProductFilter(), output);
+
+        assertEquals(1, rows);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(output.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Produtos");
+            assertEquals("Nome do Produto", sheet.getRow(0).getCell(1).getStringCellValue());
+            assertEquals(product.getUuidProduct().toString(), sheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals(20.0, sheet.getRow(1).getCell(2).getNumericCellValue());
+        }
+    }
+
+    @Test
+    @DisplayName("Must write the category summary sheet")
+    void exportCategories() throws IOException {
+        CategoryReportRowDTO row = new CategoryReportRowDTO(UUID.randomUUID(), "Cabos", 2L, 20.0, 110.0, 200.0);
+        when(productRepository.findCategorySummary(any(Specification.class))).thenReturn(List.of(row));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long rows = exporter.exportCategories(new ProductFilter(), output);
+
+        assertEquals(1, rows);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(output.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Categorias");
+            assertEquals("Cabos", sheet.getRow(1).getCell(1).getStringCellValue());
+            assertEquals(2.0, sheet.getRow(1).getCell(2).getNumericCellValue());
+            assertEquals(110.0, sheet.getRow(1).getCell(4).getNumericCellValue());
+        }
+    }
+}
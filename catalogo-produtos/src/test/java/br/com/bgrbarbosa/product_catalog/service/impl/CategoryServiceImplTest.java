@@ -5,6 +5,7 @@ import br.com.bgrbarbosa.product_catalog.model.Category;
 import br.com.bgrbarbosa.product_catalog.model.Role;
 import br.com.bgrbarbosa.product_catalog.model.User;
 import br.com.bgrbarbosa.product_catalog.repository.CategoryRepository;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
 import br.com.bgrbarbosa.product_catalog.service.exception.IllegalArgumentException;
 import br.com.bgrbarbosa.product_catalog.service.exception.ResourceNotFoundException;
 import br.com.bgrbarbosa.product_catalog.service.exception.UserException;
@@ -17,6 +18,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
@@ -32,6 +36,12 @@ class CategoryServiceImplTest {
     @Mock
     private CategoryRepository repository;
 
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CategoryServiceImpl service;
 
@@ -96,14 +106,15 @@ class CategoryServiceImplTest {
     @DisplayName("Must return a list of category")
     void ReturnsAListOfCategoryPageble() {
         // Given / Arrange
-        Mockito.when(repository.findAll()).thenReturn(listCategory);
+        Mockito.when(repository.findAll(pageable)).thenReturn(new PageImpl<>(listCategory, pageable, listCategory.size()));
 
         // When / Act
-        List<Category> result = service.findAll(pageable);
+        Page<Category> result = service.findAll(pageable);
 
         // Then / Assert
-        Assertions.assertEquals(result.size(), 2);
-        Assertions.assertEquals(result.get(0).getClass(), Category.class);
+        verify(repository, never()).findAll();
+        Assertions.assertEquals(result.getContent().size(), 2);
+        Assertions.assertEquals(result.getContent().get(0).getClass(), Category.class);
     }
 
     @Test
@@ -207,6 +218,7 @@ class CategoryServiceImplTest {
 
         verify(repository, times(1)).findById(category.getUuidCategory());
         verify(repository, times(1)).save(category);
+        verify(productRepository, times(1)).refreshSearchVectorByCategory(category.getUuidCategory());
     }
 
     @Test
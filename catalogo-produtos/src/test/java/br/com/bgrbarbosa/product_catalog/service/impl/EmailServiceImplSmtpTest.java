@@ -0,0 +1,94 @@
+package br.com.bgrbarbosa.product_catalog.service.impl;
+
+import br.com.bgrbarbosa.product_catalog.model.Category;
+import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.service.CatalogPdfCache;
+import br.com.bgrbarbosa.product_catalog.service.CatalogPdfWriter;
+import br.com.bgrbarbosa.product_catalog.service.CatalogVersion;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Envio real por SMTP contra um servidor GreenMail em memória.
+ */
+@ExtendWith(MockitoExtension.class)
+class EmailServiceImplSmtpTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @TempDir
+    Path pdfDirectory;
+
+    private EmailServiceImpl emailService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        CatalogPdfCache catalogPdfCache = new CatalogPdfCache(
+                new CatalogPdfWriter(productRepository), new CatalogVersion(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(catalogPdfCache, "directory", pdfDirectory);
+        catalogPdfCache.start();
+        emailService = new EmailServiceImpl(catalogPdfCache, mailSender);
+        ReflectionTestUtils.setField(emailService, "from", "catalogo@exemplo.com");
+    }
+
+    @Test
+    @DisplayName("Must deliver the product list with the PDF attached")
+    void deliverProductList() throws Exception {
+        Category category = new Category(UUID.randomUUID(), "Cabos", "Categoria de cabos", LocalDate.now(), null, List.of());
+        when(productRepository.streamAll(any(), any(), anyInt())).thenAnswer(invocation -> Stream.of(
+                new Product(UUID.randomUUID(), "Cabo de celular V8", "Cabo V8", 20.0, null, LocalDate.now(), null, category)));
+
+        emailService.sendingProductListByEmail("cliente@exemplo.com");
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertEquals("cliente@exemplo.com", received[0].getAllRecipients()[0].toString());
+        assertEquals("Relatório de Produtos - Anexo PDF", received[0].getSubject());
+        MimeMultipart content = (MimeMultipart) received[0].getContent();
+        assertEquals("relatorio-produtos.pdf", content.getBodyPart(1).getFileName());
+    }
+
+    @Test
+    @DisplayName("Must deliver a group of emails over one connection and render the PDF once")
+    void deliverGroup() {
+        when(productRepository.streamAll(any(), any(), anyInt())).thenAnswer(invocation -> Stream.empty());
+
+        List<Exception> results = emailService.sendingProductListByEmail(
+                List.of("a@exemplo.com", "b@exemplo.com", "c@exemplo.com"));
+
+        assertEquals(Arrays.asList(null, null, null), results);
+        assertEquals(3, greenMail.getReceivedMessages().length);
+        verify(productRepository, times(1)).streamAll(any(), any(), anyInt());
+    }
+}
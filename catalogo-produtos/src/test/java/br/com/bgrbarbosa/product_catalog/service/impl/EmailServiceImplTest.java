@@ -4,17 +4,23 @@ package br.com.bgrbarbosa.product_catalog.service.impl;
 import br.com.bgrbarbosa.product_catalog.model.Category;
 import br.com.bgrbarbosa.product_catalog.model.Product;
 import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.service.CatalogPdfCache;
+import br.com.bgrbarbosa.product_catalog.service.CatalogPdfWriter;
+import br.com.bgrbarbosa.product_catalog.service.CatalogVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -29,10 +35,12 @@ class EmailServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @TempDir
+    Path pdfDirectory;
+
     @Mock
     private JavaMailSender mailSender;
 
-    @InjectMocks
     private EmailServiceImpl emailService;
 
     private MimeMessage mimeMessage;
@@ -42,9 +50,14 @@ class EmailServiceImplTest {
     private Category category;
 
     @BeforeEach
-    void setUp() throws jakarta.mail.MessagingException {
+    void setUp() throws Exception {
         UUID uuidP1 = UUID.randomUUID();
         UUID uuidP2 = UUID.randomUUID();
+        CatalogPdfCache catalogPdfCache = new CatalogPdfCache(
+                new CatalogPdfWriter(productRepository), new CatalogVersion(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(catalogPdfCache, "directory", pdfDirectory);
+        catalogPdfCache.start();
+        emailService = new EmailServiceImpl(catalogPdfCache, mailSender);
         mimeMessage = mock(MimeMessage.class);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
         p1 = new Product(uuidP1, "Cabo de Rede par trançado", "Cabo de rede par trançado categoria 5e Furukawa", 200.0, "http://upload123", LocalDate.of(2023, 10, 26), null, category);
@@ -62,7 +75,7 @@ class EmailServiceImplTest {
         products.add(p1);
         products.add(p2);
 
-        when(productRepository.findAll()).thenReturn(products);
+        when(productRepository.streamAll(any(), any(), anyInt())).thenAnswer(invocation -> products.stream());
 
         // Argument captors to inspect the arguments passed to mailSender.send()
         ArgumentCaptor<MimeMessage> messageCaptor = ArgumentCaptor.forClass(MimeMessage.class);
@@ -71,7 +84,7 @@ class EmailServiceImplTest {
         assertDoesNotThrow(() -> emailService.sendingProductListByEmail(recipient));
 
         // Assert
-        verify(productRepository, times(1)).findAll();
+        verify(productRepository, times(1)).streamAll(any(), any(), anyInt());
         verify(mailSender, times(1)).createMimeMessage();
         verify(mailSender, times(1)).send(messageCaptor.capture());
         MimeMessage capturedMessage = messageCaptor.getValue();
@@ -84,7 +97,7 @@ class EmailServiceImplTest {
         String recipient = "test@example.com";
         List<Product> products = new ArrayList<>(); // Empty list
 
-        when(productRepository.findAll()).thenReturn(products);
+        when(productRepository.streamAll(any(), any(), anyInt())).thenAnswer(invocation -> products.stream());
 
         ArgumentCaptor<MimeMessage> messageCaptor = ArgumentCaptor.forClass(MimeMessage.class);
 
@@ -92,7 +105,7 @@ class EmailServiceImplTest {
         assertDoesNotThrow(() -> emailService.sendingProductListByEmail(recipient));
 
         // Assert
-        verify(productRepository, times(1)).findAll();
+        verify(productRepository, times(1)).streamAll(any(), any(), anyInt());
         verify(mailSender, times(1)).createMimeMessage();
         verify(mailSender, times(1)).send(messageCaptor.capture());
     }
@@ -3,9 +3,16 @@ package br.com.bgrbarbosa.product_catalog.service.impl;
 import br.com.bgrbarbosa.product_catalog.config.Messages;
 import br.com.bgrbarbosa.product_catalog.model.Category;
 import br.com.bgrbarbosa.product_catalog.model.Product;
+import br.com.bgrbarbosa.product_catalog.model.dto.ProductFacetsDTO;
+import br.com.bgrbarbosa.product_catalog.repository.CategoryRepository;
 import br.com.bgrbarbosa.product_catalog.repository.ProductRepository;
+import br.com.bgrbarbosa.product_catalog.service.CatalogChangedEvent;
+import br.com.bgrbarbosa.product_catalog.service.ProductCountCache;
+import br.com.bgrbarbosa.product_catalog.service.ProductSearchIndex;
+import br.com.bgrbarbosa.product_catalog.service.exception.IllegalArgumentException;
 import br.com.bgrbarbosa.product_catalog.service.exception.ResourceNotFoundException;
 import br.com.bgrbarbosa.product_catalog.service.exception.UserException;
+import br.com.bgrbarbosa.product_catalog.specification.ProductCursor;
 import br.com.bgrbarbosa.product_catalog.specification.ProductSpec;
 import br.com.bgrbarbosa.product_catalog.specification.filter.ProductFilter;
 import org.junit.jupiter.api.Assertions;
@@ -13,23 +20,37 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +61,21 @@ class ProductServiceImplTest {
     @Mock
     private ProductSpec spec;
 
+    @Mock
+    private ProductCountCache countCache;
+
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private ProductServiceImpl service;
 
@@ -78,6 +114,7 @@ class ProductServiceImplTest {
 
         // Then / Assert
         verify(repository, times(1)).save(p1);
+        verify(repository, times(1)).refreshSearchVector(p1.getUuidProduct());
         assertEquals(result.getClass(), p1.getClass());
         assertEquals(result.getUuidProduct(), p1.getUuidProduct());
         assertEquals(result.getNameProduct(), p1.getNameProduct());
@@ -87,20 +124,295 @@ class ProductServiceImplTest {
         assertEquals(result.getCategoryProduct(), p1.getCategoryProduct());
     }
 
+    @Test
+    @DisplayName("Must insert a batch reporting rejected items without aborting the others")
+    void insertAllShouldReportItemsRejectedBeforeInsert() {
+        Product valid = newProduct("Cabo HDMI", category);
+        Product withId = newProduct("Cabo USB", category);
+        withId.setUuidProduct(UUID.randomUUID());
+        Product unknownCategory = newProduct("Cabo VGA",
+                new Category(uuidNotExist, "Outra", "Outra categoria", null, null, List.of()));
+        when(categoryRepository.findExistingIds(Set.of(category.getUuidCategory(), uuidNotExist)))
+                .thenReturn(Set.of(category.getUuidCategory()));
+        runTransactions();
+        doAnswer(invocation -> assignIds(invocation.getArgument(0))).when(repository).insertAll(anyList(), anyInt());
+
+        List<String> errors = service.insertAll(List.of(valid, withId, unknownCategory));
+
+        assertNull(errors.get(0));
+        assertEquals(Messages.PRODUCT_BATCH_ID_NOT_ALLOWED, errors.get(1));
+        assertEquals(Messages.RESOURCE_NOT_FOUND + "category " + uuidNotExist, errors.get(2));
+        assertNotNull(valid.getUuidProduct());
+        verify(repository, times(1)).insertAll(eq(List.of(valid)), anyInt());
+        verify(repository, times(1)).refreshSearchVectors(List.of(valid.getUuidProduct()));
+        verify(categoryRepository, times(1)).findExistingIds(any());
+        verify(eventPublisher, times(1)).publishEvent(CatalogChangedEvent.product(valid.getUuidProduct()));
+    }
+
+    @Test
+    @DisplayName("Must retry a failed chunk one product at a time")
+    void insertAllShouldIsolateFailingProductOfChunk() {
+        Product valid = newProduct("Cabo HDMI", category);
+        Product duplicated = newProduct("Cabo duplicado", category);
+        when(categoryRepository.findExistingIds(Set.of(category.getUuidCategory())))
+                .thenReturn(Set.of(category.getUuidCategory()));
+        runTransactions();
+        doAnswer(invocation -> {
+            List<Product> chunk = invocation.getArgument(0);
+            assignIds(chunk);
+            if (chunk.contains(duplicated)) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+            return null;
+        }).when(repository).insertAll(anyList(), anyInt());
+
+        List<String> errors = service.insertAll(List.of(valid, duplicated));
+
+        assertNull(errors.get(0));
+        assertEquals("duplicate key value violates unique constraint", errors.get(1));
+        assertNotNull(valid.getUuidProduct());
+        assertNull(duplicated.getUuidProduct());
+        verify(repository, times(3)).insertAll(anyList(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Must reject a batch above the item limit")
+    void insertAllShouldRejectBatchAboveLimit() {
+        ReflectionTestUtils.setField(service, "batchMaxItems", 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.insertAll(List.of(newProduct("Cabo HDMI", category), newProduct("Cabo USB", category))));
+        verify(repository, never()).insertAll(anyList(), anyInt());
+    }
+
+    private static Product newProduct(String name, Category category) {
+        return new Product(null, name, name + " de teste", 10.0, "http://upload", null, null, category);
+    }
+
+    private static Object assignIds(List<Product> products) {
+        products.forEach(product -> product.setUuidProduct(UUID.randomUUID()));
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactions() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+    }
+
     @Test
     @DisplayName("Must return a list of product")
     void ReturnsAListOfProductPageFilter() {
         // Given / Arrange
-        when(repository.findAll(any(Specification.class)))
-                .thenReturn(listProduct);
+        when(repository.findSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(listProduct, pageable, false));
 
         // When / Act
-        List<Product> result = service.findAll(pageable, filter);
+        Page<Product> result = service.findAll(pageable, filter);
 
         // Then / Assert
         assertNotNull(result);
-        assertEquals(2, result.size());
+        assertEquals(2, result.getContent().size());
+        assertEquals(2, result.getTotalElements());
+        verify(repository, never()).findAll(any(Specification.class));
+        verify(countCache, never()).get(any(), any());
+
+    }
+
+    @Test
+    @DisplayName("Must load only the page answered by the search index, in index order")
+    void findAllPageShouldHydrateIdsFromSearchIndex() {
+        // Given / Arrange
+        when(searchIndex.search(any(ProductFilter.class), any(Pageable.class)))
+                .thenReturn(Optional.of(new ProductSearchIndex.Hits(List.of(uuidP2, uuidP1), 7)));
+        when(repository.findAllById(List.of(uuidP2, uuidP1))).thenReturn(List.of(p1, p2));
+
+        // When / Act
+        Page<Product> result = service.findAll(PageRequest.of(0, 2, Sort.Direction.ASC, "nameProduct"), filter);
+
+        // Then / Assert
+        assertEquals(7, result.getTotalElements());
+        assertEquals(uuidP2, result.getContent().get(0).getUuidProduct());
+        assertEquals(uuidP1, result.getContent().get(1).getUuidProduct());
+        verify(repository, never()).findSlice(any(Specification.class), any(Pageable.class));
+        verify(countCache, never()).get(any(), any());
+    }
+
+    @Test
+    @DisplayName("Must take the total from the count cache when the page is full")
+    void findAllPageShouldUseCountCacheWhenPageIsFull() {
+        // Given / Arrange
+        PageRequest fullPage = PageRequest.of(0, 2, Sort.Direction.ASC, "nameProduct");
+        when(repository.findSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(listProduct, fullPage, true));
+        when(countCache.get(eq(filter.normalized()), any())).thenReturn(40L);
+
+        // When / Act
+        Page<Product> result = service.findAll(fullPage, filter);
+
+        // Then / Assert
+        assertEquals(40L, result.getTotalElements());
+        assertEquals(20, result.getTotalPages());
+    }
+
+    @Test
+    @DisplayName("Must return a slice without counting the filtered products")
+    void findSliceShouldNotCount() {
+        // Given / Arrange
+        when(repository.findSlice(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(listProduct, pageable, true));
+
+        // When / Act
+        Slice<Product> result = service.findSlice(pageable, filter);
+
+        // Then / Assert
+        assertTrue(result.hasNext());
+        assertEquals(2, result.getContent().size());
+        verify(repository, never()).count(any(Specification.class));
+        verify(countCache, never()).get(any(), any());
+    }
+
+    @Test
+    @DisplayName("Must search products by text ordered by relevance")
+    void searchShouldUseFullTextQuery() {
+        // Given / Arrange
+        when(repository.searchFullText(eq("cabo rede"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(p1)));
+
+        // When / Act
+        Page<Product> result = service.search("  cabo rede ", pageable);
+
+        // Then / Assert
+        assertEquals(1, result.getContent().size());
+        assertEquals(p1.getUuidProduct(), result.getContent().get(0).getUuidProduct());
+    }
+
+    @Test
+    @DisplayName("Must return an empty page when the search text is blank")
+    void searchWithBlankTextShouldNotQuery() {
+        Page<Product> result = service.search(" ", pageable);
+
+        assertTrue(result.isEmpty());
+        verify(repository, never()).searchFullText(any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Must publish a catalog change, which clears the cached totals after commit, when a product is written")
+    void writesShouldPublishCatalogChange() {
+        // Given / Arrange
+        when(repository.save(any(Product.class))).thenReturn(p1);
+        when(repository.existsById(any())).thenReturn(true);
+
+        // When / Act
+        service.insert(p1);
+        service.delete(uuidP1);
+
+        // Then / Assert
+        verify(eventPublisher, times(2)).publishEvent(CatalogChangedEvent.product(uuidP1));
+        verify(countCache, never()).invalidate();
+        verify(searchIndex, times(1)).refresh(uuidP1);
+        verify(searchIndex, times(1)).remove(uuidP1);
+    }
+
+    @Test
+    @DisplayName("Must discard sort keys that are not product columns and keep uuidProduct as tiebreaker")
+    void findAllPageShouldSortOnlyByProductColumns() {
+        // Given / Arrange
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        when(repository.findSlice(any(Specification.class), captor.capture()))
+                .thenReturn(new SliceImpl<>(listProduct));
+        PageRequest request = PageRequest.of(2, 5, Sort.by(Sort.Order.desc("priceProduct"), Sort.Order.asc("uuid")));
+
+        // When / Act
+        service.findAll(request, filter);
+
+        // Then / Assert
+        Pageable used = captor.getValue();
+        assertEquals(2, used.getPageNumber());
+        assertEquals(5, used.getPageSize());
+        assertEquals(Sort.by(Sort.Order.desc("priceProduct"), Sort.Order.asc("uuidProduct")), used.getSort());
+    }
+
+    @Test
+    @DisplayName("Must fetch the page after the cursor ordered by sort key and uuidProduct")
+    void findAllAfterShouldOrderBySortKeyAndUuid() {
+        // Given / Arrange
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        when(repository.findSlice(any(Specification.class), captor.capture()))
+                .thenReturn(new SliceImpl<>(List.of(p2), PageRequest.of(0, 1), true));
+        ProductCursor cursor = ProductCursor.of(p1, "nameProduct");
+
+        // When / Act
+        Slice<Product> result = service.findAllAfter(filter, cursor, "nameProduct", 1);
+
+        // Then / Assert
+        assertTrue(result.hasNext());
+        assertEquals(p2.getUuidProduct(), result.getContent().get(0).getUuidProduct());
+        assertEquals(0, captor.getValue().getOffset());
+        assertEquals(Sort.by(Sort.Order.asc("nameProduct"), Sort.Order.asc("uuidProduct")), captor.getValue().getSort());
+        verify(repository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    @DisplayName("Must reject a cursor created for another sort field")
+    void findAllAfterShouldRejectCursorOfOtherSortField() {
+        ProductCursor cursor = ProductCursor.of(p1, "priceProduct");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.findAllAfter(filter, cursor, "nameProduct", 10));
+        verify(repository, never()).findSlice(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Must reject a price range whose minimum is greater than the maximum")
+    void findAllShouldRejectInvertedPriceRange() {
+        ProductFilter inverted = new ProductFilter(null, null, null, null, 300.0, 100.0);
+
+        assertThrows(IllegalArgumentException.class, () -> service.findAll(pageable, inverted));
+        verify(repository, never()).findSlice(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Must compute facets with the default price buckets")
+    void findFacetsShouldUseDefaultPriceBounds() {
+        ProductFacetsDTO facets = new ProductFacetsDTO(2, List.of(), List.of());
+        when(repository.findFacets(any(Specification.class), eq(List.of(0.0, 50.0, 100.0, 500.0, 1000.0)))).thenReturn(facets);
+
+        assertSame(facets, service.findFacets(filter, null));
+    }
+
+    @Test
+    @DisplayName("Must reject price bounds that are not in ascending order")
+    void findFacetsShouldRejectUnorderedPriceBounds() {
+        assertThrows(IllegalArgumentException.class, () -> service.findFacets(filter, List.of(100.0, 50.0)));
+        verify(repository, never()).findFacets(any(Specification.class), anyList());
+    }
+
+    @Test
+    @DisplayName("Must decode the same cursor that was encoded")
+    void cursorShouldRoundTrip() {
+        ProductCursor cursor = ProductCursor.of(p1, "priceProduct");
+
+        ProductCursor decoded = ProductCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertEquals(p1.getPriceProduct(), decoded.sortKey());
+    }
+
+    @Test
+    @DisplayName("Must keep a NULL sort key apart from the text \"null\" in the cursor")
+    void cursorShouldRoundTripNullKey() {
+        p1.setPriceProduct(null);
+        p2.setNameProduct("null");
+
+        ProductCursor nullPrice = ProductCursor.decode(ProductCursor.of(p1, "priceProduct").encode());
+        ProductCursor nullText = ProductCursor.decode(ProductCursor.of(p2, "nameProduct").encode());
 
+        assertNull(nullPrice.sortValue());
+        assertNull(nullPrice.sortKey());
+        assertEquals("null", nullText.sortKey());
     }
 
     @Test
@@ -5,11 +5,11 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.*;
 import java.util.logging.Logger;
 
 import br.com.bgrbarbosa.product_catalog.service.ProductServiceReport;
+import br.com.bgrbarbosa.product_catalog.service.ReportTemplateRegistry;
 import net.sf.jasperreports.engine.*;
 
 import org.junit.jupiter.api.DisplayName;
@@ -19,17 +19,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceReportTest {
 
     @Mock
-    private ResourceLoader resourceLoader;
-
-    @Mock
-    private Resource resource;
+    private ReportTemplateRegistry templates;
 
     @Mock
     private Map<String, Object> params;
@@ -99,20 +94,19 @@ class ProductServiceReportTest {
     void deveGerarPdfComSucesso() throws IOException, JRException {
         // 1. Mock das dependências e dados
         List<Object> mockDataList = Collections.singletonList(new Object());
-        InputStream mockInputStream = mock(InputStream.class);
+        JasperReport mockReport = mock(JasperReport.class);
         JasperPrint mockJasperPrint = mock(JasperPrint.class);
         byte[] expectedBytes = "conteudo-pdf-mock".getBytes();
 
         // 2. Configuração do comportamento dos mocks
-        when(resourceLoader.getResource(anyString())).thenReturn(resource);
-        when(resource.getInputStream()).thenReturn(mockInputStream);
+        when(templates.get(ReportTemplateRegistry.PRODUTO)).thenReturn(mockReport);
 
 
         try (MockedStatic<JasperFillManager> fillManagerMock = mockStatic(JasperFillManager.class);
              MockedStatic<JasperExportManager> exportManagerMock = mockStatic(JasperExportManager.class)) {
 
             // Configura o mock do método fillReport. `anyMap()` funciona para mockar um Map genérico.
-            fillManagerMock.when(() -> JasperFillManager.fillReport(any(InputStream.class), anyMap(), any(JRDataSource.class)))
+            fillManagerMock.when(() -> JasperFillManager.fillReport(eq(mockReport), anyMap(), any(JRDataSource.class)))
                     .thenReturn(mockJasperPrint);
 
             // Configura o mock do método exportReportToPdf
@@ -125,29 +119,26 @@ class ProductServiceReportTest {
             assertNotNull(resultBytes);
             assertArrayEquals(expectedBytes, resultBytes);
 
-            // 5. Verificação das chamadas
-            verify(resourceLoader).getResource(JASPER_DIRETORIO.concat("Produto.jasper"));
-            verify(resource).getInputStream();
+            // 5. Verificação das chamadas: o template vem do registro, sem recompilar
+            verify(templates).get(ReportTemplateRegistry.PRODUTO);
         }
     }
 
     @Test
     @DisplayName("Deve logar o erro e lançar RuntimeException em caso de JRException")
-    void shouldLogErrorAndThrowRuntimeExceptionOnJRException() throws IOException, JRException {
+    void shouldLogErrorAndThrowRuntimeExceptionOnJRException() throws JRException {
         // 1. Configuração do cenário de teste
         List<Object> mockDataList = Collections.singletonList(new Object());
-        InputStream mockInputStream = mock(InputStream.class);
 
         // Define o comportamento dos mocks para o fluxo que precede a exceção
-        when(resourceLoader.getResource(anyString())).thenReturn(resource);
-        when(resource.getInputStream()).thenReturn(mockInputStream);
+        when(templates.get(ReportTemplateRegistry.PRODUTO)).thenReturn(mock(JasperReport.class));
 
         // Cria o mock para os métodos estáticos
         try (MockedStatic<JasperFillManager> fillManagerMock = mockStatic(JasperFillManager.class)) {
 
             // Configura o mock para lançar uma JRException quando fillReport for chamado
             JRException jreException = new JRException("Simulando erro de preenchimento do relatório");
-            fillManagerMock.when(() -> JasperFillManager.fillReport(any(InputStream.class), anyMap(), any(JRDataSource.class)))
+            fillManagerMock.when(() -> JasperFillManager.fillReport(any(JasperReport.class), anyMap(), any(JRDataSource.class)))
                     .thenThrow(jreException);
 
             // 2. Execução do método e verificação da exceção lançada
@@ -165,15 +156,14 @@ class ProductServiceReportTest {
     }
 
     @Test
-    @DisplayName("Deve logar o erro e lançar RuntimeException em caso de IOException")
-    void shouldLogErrorAndThrowRuntimeExceptionOnIOException() throws IOException {
+    @DisplayName("Deve logar o erro e lançar RuntimeException quando o template não pode ser carregado")
+    void shouldLogErrorAndThrowRuntimeExceptionOnMissingTemplate() throws JRException {
         // 1. Configuração do cenário de teste
         List<Object> mockDataList = Collections.singletonList(new Object());
 
-        // Define o comportamento dos mocks para que getInputStream lance uma IOException
-        when(resourceLoader.getResource(anyString())).thenReturn(resource);
-        IOException ioException = new IOException("Simulando erro de leitura do arquivo");
-        when(resource.getInputStream()).thenThrow(ioException);
+        // Define o comportamento do registro para que o carregamento do template falhe
+        JRException templateException = new JRException("Simulando erro de leitura do arquivo");
+        when(templates.get(ReportTemplateRegistry.PRODUTO)).thenThrow(templateException);
 
         // 2. Execução do método e verificação da exceção lançada
         RuntimeException thrownException = assertThrows(RuntimeException.class, () -> {
@@ -184,8 +174,8 @@ class ProductServiceReportTest {
         // Verifica se o método error do logger foi chamado
        // verify(log).error(eq("Jasper Reports ::: "), any(Throwable.class));
 
-        // Verifica se a causa da RuntimeException é a IOException original
-        assertEquals(ioException, thrownException.getCause(), "A causa da RuntimeException deveria ser a IOException original.");
+        // Verifica se a causa da RuntimeException é a JRException original
+        assertEquals(templateException, thrownException.getCause(), "A causa da RuntimeException deveria ser a JRException original.");
     }
 
 }
\ No newline at end of file
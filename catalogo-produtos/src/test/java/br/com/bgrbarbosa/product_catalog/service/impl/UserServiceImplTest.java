@@ -15,12 +15,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
-import java.awt.print.Pageable;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -153,14 +154,15 @@ class UserServiceImplTest {
     void ReturnsAListOfUsers() {
 
         // Given / Arrange
-        Mockito.when(repository.findAll()).thenReturn(listUser);
+        Mockito.when(repository.findAll(pageable)).thenReturn(new PageImpl<>(listUser, pageable, listUser.size()));
 
         // When / Act
-        List<User> result = service.findAll(pageable);
+        Page<User> result = service.findAll(pageable);
 
         // Then / Assert
-        Assertions.assertEquals(result.size(), 2);
-        Assertions.assertEquals(result.get(0).getClass(), User.class);
+        verify(repository, never()).findAll();
+        Assertions.assertEquals(result.getContent().size(), 2);
+        Assertions.assertEquals(result.getContent().get(0).getClass(), User.class);
     }
 
     @Test
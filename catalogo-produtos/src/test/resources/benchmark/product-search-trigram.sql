@@ -0,0 +1,78 @@
+-- Benchmark da busca por substring em um catálogo gerado de 1.000.000 de produtos.
+-- Executar em um banco descartável: psql -d product-catalog-bench -f product-search-trigram.sql
+-- Compare os tempos de "Execution Time" dos EXPLAIN ANALYZE antes e depois da criação dos índices.
+--
+-- RESULTADOS: ainda não medidos. Este script ainda não foi executado em um PostgreSQL, então o ganho dos
+-- índices de trigramas (db/migration/V001) continua sem números. Ao executar, registre aqui a versão do
+-- PostgreSQL, a máquina e o "Execution Time" de cada consulta antes e depois dos índices.
+
+\timing on
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+DROP TABLE IF EXISTS tb_product;
+DROP TABLE IF EXISTS tb_category;
+
+CREATE TABLE tb_category (
+    uuid_category uuid PRIMARY KEY,
+    name_category varchar(255),
+    desc_category varchar(255),
+    dt_created timestamp,
+    dt_updated timestamp
+);
+
+CREATE TABLE tb_product (
+    uuid_product uuid PRIMARY KEY,
+    name_product varchar(255),
+    description_product varchar(255),
+    price_product double precision,
+    url_product varchar(255),
+    dt_created date,
+    dt_updated date,
+    category_uuid uuid NOT NULL REFERENCES tb_category (uuid_category)
+);
+
+INSERT INTO tb_category (uuid_category, name_category, desc_category, dt_created)
+SELECT gen_random_uuid(), 'Categoria ' || i, 'Descrição da categoria ' || i, now()
+FROM generate_series(1, 200) AS i;
+
+INSERT INTO tb_product (uuid_product, name_product, description_product, price_product, url_product, dt_created, category_uuid)
+SELECT gen_random_uuid(),
+       'Produto ' || md5(i::text),
+       'Descrição ' || md5((i * 7)::text) || ' modelo ' || (i % 5000),
+       round((random() * 10000)::numeric, 2),
+       'http://img/' || i,
+       current_date,
+       c.ids[1 + i % 200]
+FROM generate_series(1, 1000000) AS i,
+     (SELECT array_agg(uuid_category) AS ids FROM tb_category) c;
+
+ANALYZE tb_product;
+ANALYZE tb_category;
+
+-- 1) Sem índices de trigramas (varredura sequencial)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM tb_product p
+WHERE lower(p.name_product) LIKE '%a3f9%' ORDER BY p.name_product, p.uuid_product LIMIT 11;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM tb_product p JOIN tb_category c ON c.uuid_category = p.category_uuid
+WHERE lower(p.description_product) LIKE '%modelo 4321%' AND lower(c.name_category) LIKE '%categoria 1%';
+
+-- 2) Com os índices de db/migration/V001__product_search_trigram.sql
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm
+    ON tb_product USING gin (lower(name_product) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_product_description_trgm
+    ON tb_product USING gin (lower(description_product) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_category_name_trgm
+    ON tb_category USING gin (lower(name_category) gin_trgm_ops);
+ANALYZE tb_product;
+ANALYZE tb_category;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM tb_product p
+WHERE lower(p.name_product) LIKE '%a3f9%' ORDER BY p.name_product, p.uuid_product LIMIT 11;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM tb_product p JOIN tb_category c ON c.uuid_category = p.category_uuid
+WHERE lower(p.description_product) LIKE '%modelo 4321%' AND lower(c.name_category) LIKE '%categoria 1%';